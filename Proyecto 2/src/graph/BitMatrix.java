@@ -0,0 +1,199 @@
+package graph;
+
+/**
+ * Matriz cuadrada de bits: cada fila se guarda como un array de long, 64
+ * columnas por palabra. Permite recorrer los bits activos de una fila saltando
+ * palabras enteras a cero.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+final class BitMatrix {
+
+	private static final int ADDRESS_BITS_PER_WORD = 6;
+	private static final int BITS_PER_WORD = 1 << ADDRESS_BITS_PER_WORD;
+
+	private final long[][] words;
+	private final int dimension;
+
+	/**
+	 * Constructor de BitMatrix que recibe dimension como parametro
+	 *
+	 * @param dimension numero de filas y de columnas
+	 */
+	BitMatrix(int dimension) {
+		this.dimension = dimension;
+		words = new long[dimension][wordIndex(dimension - 1) + 1];
+	}
+
+	/**
+	 * Devuelve la palabra que contiene una columna
+	 *
+	 * @param column columna
+	 * @return indice de la palabra
+	 */
+	private static int wordIndex(int column) {
+		return column >> ADDRESS_BITS_PER_WORD;
+	}
+
+	/**
+	 * Devuelve el numero de filas y de columnas
+	 *
+	 * @return dimension
+	 */
+	int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * Devuelve el bit de una celda
+	 *
+	 * @param row    fila
+	 * @param column columna
+	 * @return true si el bit esta activo
+	 */
+	boolean get(int row, int column) {
+		return (words[row][wordIndex(column)] & (1L << column)) != 0;
+	}
+
+	/**
+	 * Activa el bit de una celda
+	 *
+	 * @param row    fila
+	 * @param column columna
+	 */
+	void set(int row, int column) {
+		words[row][wordIndex(column)] |= 1L << column;
+	}
+
+	/**
+	 * Desactiva el bit de una celda
+	 *
+	 * @param row    fila
+	 * @param column columna
+	 */
+	void clear(int row, int column) {
+		words[row][wordIndex(column)] &= ~(1L << column);
+	}
+
+	/**
+	 * Desactiva los bits de una fila en el rango de columnas [fromColumn,
+	 * toColumn), palabra a palabra.
+	 *
+	 * @param row        fila
+	 * @param fromColumn primera columna (incluida)
+	 * @param toColumn   ultima columna (excluida)
+	 */
+	void clear(int row, int fromColumn, int toColumn) {
+		if (fromColumn >= toColumn) {
+			return;
+		}
+		long[] rowWords = words[row];
+		int firstWord = wordIndex(fromColumn);
+		int lastWord = wordIndex(toColumn - 1);
+		long firstMask = -1L << fromColumn;
+		long lastMask = -1L >>> -toColumn;
+		if (firstWord == lastWord) {
+			rowWords[firstWord] &= ~(firstMask & lastMask);
+			return;
+		}
+		rowWords[firstWord] &= ~firstMask;
+		for (int i = firstWord + 1; i < lastWord; i++) {
+			rowWords[i] = 0;
+		}
+		rowWords[lastWord] &= ~lastMask;
+	}
+
+	/**
+	 * Activa o desactiva el bit de una celda
+	 *
+	 * @param row    fila
+	 * @param column columna
+	 * @param value  valor del bit
+	 */
+	void put(int row, int column, boolean value) {
+		if (value) {
+			set(row, column);
+		} else {
+			clear(row, column);
+		}
+	}
+
+	/**
+	 * Hace la OR de la fila source sobre la fila target, 64 columnas por
+	 * operacion.
+	 *
+	 * @param target fila que se modifica
+	 * @param source fila que se suma
+	 */
+	void orRow(int target, int source) {
+		long[] targetWords = words[target];
+		long[] sourceWords = words[source];
+		for (int i = 0; i < targetWords.length; i++) {
+			targetWords[i] |= sourceWords[i];
+		}
+	}
+
+	/**
+	 * Devuelve la primera columna con el bit activo de una fila a partir de una
+	 * columna dada (incluida).
+	 *
+	 * @param row        fila
+	 * @param fromColumn columna desde la que se busca
+	 * @return columna encontrada o -1 si no hay mas bits activos
+	 */
+	int nextSetBit(int row, int fromColumn) {
+		if (fromColumn >= dimension) {
+			return -1;
+		}
+		long[] rowWords = words[row];
+		int wordIndex = wordIndex(fromColumn);
+		long word = rowWords[wordIndex] & (-1L << fromColumn);
+		while (true) {
+			if (word != 0) {
+				int column = wordIndex * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+				return column < dimension ? column : -1;
+			}
+			if (++wordIndex == rowWords.length) {
+				return -1;
+			}
+			word = rowWords[wordIndex];
+		}
+	}
+
+	/**
+	 * Devuelve una matriz de otra dimension con las primeras filas y columnas de
+	 * esta. El resto de celdas quedan a cero.
+	 *
+	 * @param newDimension dimension de la nueva matriz
+	 * @param keep         numero de filas y columnas que se copian
+	 * @return nueva matriz
+	 */
+	BitMatrix copyOf(int newDimension, int keep) {
+		BitMatrix copy = new BitMatrix(newDimension);
+		if (keep == 0) {
+			return copy;
+		}
+		int keptWords = wordIndex(keep - 1) + 1;
+		long lastWordMask = -1L >>> (BITS_PER_WORD * keptWords - keep);
+		for (int row = 0; row < keep; row++) {
+			System.arraycopy(words[row], 0, copy.words[row], 0, keptWords);
+			copy.words[row][keptWords - 1] &= lastWordMask;
+		}
+		return copy;
+	}
+
+	/**
+	 * Devuelve la matriz como un array de booleanos
+	 *
+	 * @return copia de la matriz
+	 */
+	boolean[][] toArray() {
+		boolean[][] result = new boolean[dimension][dimension];
+		for (int row = 0; row < dimension; row++) {
+			for (int column = nextSetBit(row, 0); column >= 0; column = nextSetBit(row, column + 1)) {
+				result[row][column] = true;
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,167 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Floyd-Warshall por bloques y en paralelo. La matriz se divide en bloques de
+ * tileSize x tileSize y, para cada bloque diagonal K:
+ * <ol>
+ * <li>se procesa el bloque (K,K);</li>
+ * <li>se procesan en paralelo los bloques de la fila K y de la columna K;</li>
+ * <li>se procesan en paralelo el resto de bloques.</li>
+ * </ol>
+ * Cada bloque cabe en cache y las tareas de una misma fase escriben en bloques
+ * distintos, por lo que no necesitan sincronizacion.
+ *
+ * Rellena las matrices con el mismo convenio que el Floyd secuencial: los costes
+ * son identicos y floydPathsP guarda un pivote intermedio del camino minimo (o
+ * EMPTY si el camino es la arista directa). Si hay varios caminos de igual coste
+ * el pivote elegido puede ser otro, pero el camino reconstruido es igual de
+ * corto. Si se pasa matriz de siguientes saltos, se mantiene a la vez:
+ * next[i][j] = next[i][pivote] cada vez que el camino i -> j mejora.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+final class BlockedFloyd extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	private final double[][] costs;
+	private final int[][] paths;
+	private final int[][] nextHops; // null si no se mantiene
+	private final int size;
+	private final int tileSize;
+
+	/**
+	 * Constructor privado, se usa desde {@link #run}
+	 *
+	 * @param costs    matriz de costes ya inicializada
+	 * @param paths    matriz de pivotes ya inicializada
+	 * @param nextHops matriz de siguientes saltos ya inicializada o null
+	 * @param size     numero de nodos
+	 * @param tileSize lado de cada bloque
+	 */
+	private BlockedFloyd(double[][] costs, int[][] paths, int[][] nextHops, int size, int tileSize) {
+		this.costs = costs;
+		this.paths = paths;
+		this.nextHops = nextHops;
+		this.size = size;
+		this.tileSize = tileSize;
+	}
+
+	/**
+	 * Ejecuta Floyd por bloques sobre matrices ya inicializadas.
+	 *
+	 * @param costs    matriz de costes (floydCostsA)
+	 * @param paths    matriz de pivotes (floydPathsP)
+	 * @param nextHops matriz de siguientes saltos o null si no se mantiene
+	 * @param size     numero de nodos
+	 * @param tileSize lado de cada bloque
+	 * @param pool     pool en el que se ejecutan las tareas
+	 */
+	static void run(double[][] costs, int[][] paths, int[][] nextHops, int size, int tileSize,
+			ForkJoinPool pool) {
+		pool.invoke(new BlockedFloyd(costs, paths, nextHops, size, tileSize));
+	}
+
+	/**
+	 * Recorre los bloques diagonales y lanza las tres fases de cada uno.
+	 */
+	@Override
+	protected void compute() {
+		int tiles = (size + tileSize - 1) / tileSize;
+		for (int k = 0; k < tiles; k++) {
+			relaxTile(k, k, k);
+
+			List<Tile> dependent = new ArrayList<Tile>(2 * tiles);
+			for (int other = 0; other < tiles; other++) {
+				if (other != k) {
+					dependent.add(new Tile(k, other, k));
+					dependent.add(new Tile(other, k, k));
+				}
+			}
+			invokeAll(dependent);
+
+			List<Tile> remaining = new ArrayList<Tile>(tiles);
+			for (int row = 0; row < tiles; row++) {
+				if (row != k) {
+					remaining.add(new Tile(row, Tile.ALL_COLUMNS, k));
+				}
+			}
+			invokeAll(remaining);
+		}
+	}
+
+	/**
+	 * Relaja el bloque (rowTile, columnTile) con los pivotes del bloque pivotTile.
+	 *
+	 * @param rowTile    bloque de filas
+	 * @param columnTile bloque de columnas
+	 * @param pivotTile  bloque de pivotes
+	 */
+	private void relaxTile(int rowTile, int columnTile, int pivotTile) {
+		int rowEnd = Math.min(size, (rowTile + 1) * tileSize);
+		int columnStart = columnTile * tileSize;
+		int columnEnd = Math.min(size, columnStart + tileSize);
+		int pivotEnd = Math.min(size, (pivotTile + 1) * tileSize);
+		for (int pivot = pivotTile * tileSize; pivot < pivotEnd; pivot++) {
+			double[] pivotRow = costs[pivot];
+			for (int origin = rowTile * tileSize; origin < rowEnd; origin++) {
+				double originPivot = costs[origin][pivot];
+				if (originPivot == MatrixGraph.INFINITY) {
+					continue;
+				}
+				double[] originRow = costs[origin];
+				int[] originPaths = paths[origin];
+				int[] originNextHops = nextHops == null ? null : nextHops[origin];
+				for (int destination = columnStart; destination < columnEnd; destination++) {
+					double newCost = originPivot + pivotRow[destination];
+					if (newCost < originRow[destination]) {
+						originRow[destination] = newCost;
+						originPaths[destination] = pivot;
+						if (originNextHops != null) {
+							originNextHops[destination] = originNextHops[pivot];
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tarea que relaja un bloque, o todos los bloques de una fila salvo el del
+	 * pivote si columnTile es ALL_COLUMNS.
+	 */
+	private final class Tile extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+		static final int ALL_COLUMNS = -1;
+
+		private final int rowTile;
+		private final int columnTile;
+		private final int pivotTile;
+
+		Tile(int rowTile, int columnTile, int pivotTile) {
+			this.rowTile = rowTile;
+			this.columnTile = columnTile;
+			this.pivotTile = pivotTile;
+		}
+
+		@Override
+		protected void compute() {
+			if (columnTile != ALL_COLUMNS) {
+				relaxTile(rowTile, columnTile, pivotTile);
+				return;
+			}
+			int tiles = (size + tileSize - 1) / tileSize;
+			for (int column = 0; column < tiles; column++) {
+				if (column != pivotTile) {
+					relaxTile(rowTile, column, pivotTile);
+				}
+			}
+		}
+	}
+}
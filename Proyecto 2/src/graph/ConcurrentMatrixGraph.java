@@ -0,0 +1,311 @@
+package graph;
+
+import java.util.Collection;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * {@link MatrixGraph} que se puede usar desde varios hilos a la vez. Protege el
+ * grafo con un {@link StampedLock}:
+ * <ul>
+ * <li>getSize y getModificationCount leen un solo campo primitivo con lectura
+ * optimista, sin bloquear; si un escritor se cruza se repiten con el cerrojo
+ * de lectura.</li>
+ * <li>El resto de consultas (existsNode, existsEdge, getWeight, Dijkstra, los
+ * recorridos y las consultas de Floyd y de alcanzabilidad con los datos al dia)
+ * se hacen con el cerrojo de lectura, en paralelo entre si. Recorren la tabla
+ * hash y las matrices del grafo, que un escritor puede estar cambiando, asi que
+ * no se pueden leer de forma optimista.</li>
+ * <li>Las modificaciones y los recalculos perezosos de Floyd y de la clausura
+ * transitiva se hacen con el cerrojo de escritura. Si varios hilos piden a la
+ * vez un Floyd que no esta al dia, solo el primero lo recalcula: los demas se
+ * encuentran las matrices ya calculadas.</li>
+ * </ul>
+ *
+ * @author Yaiza Fernandez Vega
+ *
+ * @param <T> tipo de los nodos
+ */
+public class ConcurrentMatrixGraph<T> implements Graph<T> {
+
+	private final MatrixGraph<T> graph;
+	private final StampedLock lock = new StampedLock();
+
+	/**
+	 * Constructor de ConcurrentMatrixGraph que recibe capacity como parametro
+	 *
+	 * @param capacity capacidad
+	 */
+	public ConcurrentMatrixGraph(int capacity) {
+		this(capacity, false, MatrixStorage.STANDARD);
+	}
+
+	/**
+	 * Constructor de ConcurrentMatrixGraph que recibe capacity, growable y
+	 * storage como parametros
+	 *
+	 * @param capacity capacidad inicial
+	 * @param growable si la capacidad crece automaticamente
+	 * @param storage  forma de guardar las matrices
+	 */
+	public ConcurrentMatrixGraph(int capacity, boolean growable, MatrixStorage storage) {
+		this(new MatrixGraph<T>(capacity, growable, storage));
+	}
+
+	/**
+	 * Constructor de ConcurrentMatrixGraph que envuelve un grafo. El grafo no se
+	 * debe usar despues directamente.
+	 *
+	 * @param graph grafo
+	 */
+	ConcurrentMatrixGraph(MatrixGraph<T> graph) {
+		this.graph = graph;
+	}
+
+	/**
+	 * Lee un campo primitivo con lectura optimista. Si algun escritor ha entrado
+	 * mientras tanto, el valor se descarta y se vuelve a leer con el cerrojo de
+	 * lectura. Solo vale para lecturas que no siguen referencias del grafo.
+	 *
+	 * @param field lectura del campo
+	 * @return valor del campo
+	 */
+	private long optimisticRead(LongSupplier field) {
+		long stamp = lock.tryOptimisticRead();
+		long value = field.getAsLong();
+		if (stamp != 0 && lock.validate(stamp)) {
+			return value;
+		}
+		stamp = lock.readLock();
+		try {
+			return field.getAsLong();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Ejecuta una consulta con el cerrojo de lectura
+	 *
+	 * @param query consulta, sin efectos sobre el grafo
+	 * @return resultado de la consulta
+	 */
+	private <R> R read(Supplier<R> query) {
+		long stamp = lock.readLock();
+		try {
+			return query.get();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Ejecuta una modificacion con el cerrojo de escritura
+	 *
+	 * @param update modificacion
+	 * @return resultado de la modificacion
+	 */
+	private <R> R write(Supplier<R> update) {
+		long stamp = lock.writeLock();
+		try {
+			return update.get();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Ejecuta una consulta que necesita unos datos calculados de forma perezosa.
+	 * Si no estan al dia, se pasa al cerrojo de escritura, se calculan (salvo que
+	 * otro hilo lo haya hecho mientras se esperaba) y se vuelve al de lectura
+	 * para hacer la consulta.
+	 *
+	 * @param upToDate comprueba si los datos estan al dia
+	 * @param update   calcula los datos
+	 * @param query    consulta, sin efectos con los datos al dia
+	 * @return resultado de la consulta
+	 */
+	private <R> R lazyRead(BooleanSupplier upToDate, Runnable update, Supplier<R> query) {
+		long stamp = lock.readLock();
+		try {
+			if (!upToDate.getAsBoolean()) {
+				long writeStamp = lock.tryConvertToWriteLock(stamp);
+				if (writeStamp == 0) {
+					lock.unlockRead(stamp);
+					stamp = 0;
+					writeStamp = lock.writeLock();
+				}
+				stamp = writeStamp;
+				if (!upToDate.getAsBoolean()) {
+					update.run();
+				}
+				stamp = lock.tryConvertToReadLock(stamp);
+			}
+			return query.get();
+		} finally {
+			if (stamp != 0) {
+				lock.unlock(stamp);
+			}
+		}
+	}
+
+	@Override
+	public boolean addNode(T element) {
+		return write(() -> graph.addNode(element));
+	}
+
+	/**
+	 * Añade varios nodos de una vez, ver {@link MatrixGraph#addNodes(Collection)}
+	 *
+	 * @param elements nodos a añadir
+	 * @return numero de nodos añadidos
+	 */
+	public int addNodes(Collection<T> elements) {
+		return write(() -> graph.addNodes(elements));
+	}
+
+	@Override
+	public boolean removeNode(T element) {
+		return write(() -> graph.removeNode(element));
+	}
+
+	@Override
+	public boolean existsNode(T element) {
+		return read(() -> graph.existsNode(element));
+	}
+
+	@Override
+	public boolean addEdge(T originElement, T destinationElement, double weight) {
+		return write(() -> graph.addEdge(originElement, destinationElement, weight));
+	}
+
+	/**
+	 * Cambia el peso de una arista existente
+	 *
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @param weight             nuevo peso
+	 * @return true si la arista existe, false en caso contrario
+	 */
+	public boolean updateWeight(T originElement, T destinationElement, double weight) {
+		return write(() -> graph.updateWeight(originElement, destinationElement, weight));
+	}
+
+	@Override
+	public boolean removeEdge(T originElement, T destinationElement) {
+		return write(() -> graph.removeEdge(originElement, destinationElement));
+	}
+
+	@Override
+	public boolean existsEdge(T originElement, T destinationElement) {
+		return read(() -> graph.existsEdge(originElement, destinationElement));
+	}
+
+	@Override
+	public double getWeight(T originElement, T destinationElement) {
+		return read(() -> graph.getWeight(originElement, destinationElement));
+	}
+
+	@Override
+	public int getSize() {
+		return (int) optimisticRead(graph::getSize);
+	}
+
+	/**
+	 * Devuelve el numero de modificaciones del grafo
+	 *
+	 * @return version del grafo
+	 */
+	public long getModificationCount() {
+		return optimisticRead(graph::getModificationCount);
+	}
+
+	@Override
+	public DijkstraDataClass dijkstra(T originElement) {
+		return read(() -> graph.dijkstra(originElement));
+	}
+
+	/**
+	 * Devuelve el coste minimo entre dos nodos con Dijkstra. No usa la cache de
+	 * resultados de MatrixGraph, que se modifica en cada consulta; a cambio, la
+	 * busqueda para en cuanto llega al destino.
+	 *
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @return coste minimo del camino
+	 */
+	@Override
+	public double minimumCostPathDijkstra(T originElement, T destinationElement) {
+		return read(() -> graph.pointToPointDijkstra(originElement, destinationElement).getCost());
+	}
+
+	/**
+	 * Camino minimo entre dos nodos con Dijkstra, ver
+	 * {@link MatrixGraph#pointToPointDijkstra(Object, Object)}
+	 *
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @return coste, camino y nodos expandidos
+	 */
+	public PathResult<T> pointToPointDijkstra(T originElement, T destinationElement) {
+		return read(() -> graph.pointToPointDijkstra(originElement, destinationElement));
+	}
+
+	@Override
+	public String printDepthFirstTraversal(T originElement) {
+		return read(() -> graph.printDepthFirstTraversal(originElement));
+	}
+
+	@Override
+	public boolean floyd() {
+		return write(graph::floyd);
+	}
+
+	@Override
+	public String printFloydPath(T originElement, T destinationElement) {
+		return lazyRead(graph::isFloydUpToDate, graph::updateFloyd,
+				() -> graph.printFloydPath(originElement, destinationElement));
+	}
+
+	@Override
+	public double minimumCostPathFloyd(T originElement, T destinationElement) {
+		return lazyRead(graph::isFloydUpToDate, graph::updateFloyd,
+				() -> graph.minimumCostPathFloyd(originElement, destinationElement));
+	}
+
+	/**
+	 * Comprueba si existe un camino del nodo origen al nodo destino, ver
+	 * {@link MatrixGraph#isReachable(Object, Object)}
+	 *
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @return true si destino es alcanzable desde origen, false en caso contrario
+	 */
+	public boolean isReachable(T originElement, T destinationElement) {
+		return lazyRead(graph::isReachabilityCalculated, graph::calculateReachability,
+				() -> graph.isReachable(originElement, destinationElement));
+	}
+
+	/**
+	 * Congela el estado actual del grafo, ver {@link MatrixGraph#freeze()}. Los
+	 * lectores pueden consultar el snapshot sin cerrojos mientras los escritores
+	 * siguen modificando el grafo y publican otro snapshot cuando terminan.
+	 *
+	 * @return snapshot del grafo
+	 */
+	public GraphSnapshot<T> freeze() {
+		return read(graph::freeze);
+	}
+
+	/**
+	 * Devuelve el toString del grafo
+	 *
+	 * @return cadena
+	 */
+	@Override
+	public String toString() {
+		return read(graph::toString);
+	}
+}
@@ -0,0 +1,305 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caminos minimos desde un origen con delta-stepping (Meyer y Sanders). Los
+ * nodos se agrupan en cubos de anchura delta segun su coste provisional. Se
+ * vacia el primer cubo no vacio relajando en paralelo las aristas ligeras (peso
+ * <= delta) de todos sus nodos, repitiendo mientras vuelvan a caer nodos en el
+ * mismo cubo, y despues se relajan en paralelo las aristas pesadas de los nodos
+ * que pasaron por el.
+ *
+ * Los costes se guardan como bits de double en un AtomicLongArray: para valores
+ * no negativos el orden de los bits coincide con el de los double, asi que
+ * relajar es un compare-and-set del minimo. Al terminar, el predecesor de cada
+ * nodo es el vecino de menor indice por el que se alcanza su coste minimo,
+ * entre los de menor coste o, si el redondeo absorbe el peso de la arista,
+ * entre los de igual coste relajados en una fase anterior.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+final class DeltaStepping {
+
+	private static final int NODES_PER_TASK = 256;
+	private static final long INFINITY_BITS = Double.doubleToLongBits(DijkstraDataClass.INFINITY);
+
+	private static final int LIGHT_EDGES = 0;
+	private static final int HEAVY_EDGES = 1;
+	private static final int PREDECESSORS = 2;
+
+	private final IndexedGraph graph;
+	private final double delta;
+	private final ForkJoinPool pool;
+	private final AtomicLongArray costs;
+	private final AtomicIntegerArray predecessors;
+	private final int[] phases; // ultima fase en la que cada nodo se relajo con su coste
+
+	/**
+	 * Constructor privado, se usa desde {@link #run}
+	 *
+	 * @param graph grafo
+	 * @param delta anchura de los cubos
+	 * @param pool  pool en el que se ejecutan las tareas
+	 */
+	private DeltaStepping(IndexedGraph graph, double delta, ForkJoinPool pool) {
+		this.graph = graph;
+		this.delta = delta;
+		this.pool = pool;
+		int nodeNumber = graph.getIndexCount();
+		costs = new AtomicLongArray(nodeNumber);
+		predecessors = new AtomicIntegerArray(nodeNumber);
+		phases = new int[nodeNumber];
+	}
+
+	/**
+	 * Ejecuta delta-stepping desde el nodo de indice dado.
+	 *
+	 * @throws IllegalArgumentException si delta no es mayor que 0
+	 * @param graph grafo, con pesos positivos
+	 * @param index indice del nodo origen
+	 * @param delta anchura de los cubos
+	 * @param pool  pool en el que se ejecutan las tareas
+	 * @return DijkstraDataClass con los costes minimos y un camino minimo por nodo
+	 */
+	static DijkstraDataClass run(IndexedGraph graph, int index, double delta, ForkJoinPool pool) {
+		if (!(delta > 0)) {
+			throw new IllegalArgumentException("delta tiene que ser > 0");
+		}
+		return new DeltaStepping(graph, delta, pool).solve(index);
+	}
+
+	/**
+	 * Bucle principal por cubos
+	 *
+	 * @param origin indice del nodo origen
+	 * @return DijkstraDataClass dijkstra
+	 */
+	private DijkstraDataClass solve(int origin) {
+		int nodeNumber = graph.getIndexCount();
+		for (int i = 0; i < nodeNumber; i++) {
+			costs.set(i, INFINITY_BITS);
+			predecessors.set(i, DijkstraDataClass.NO_PREDECESSOR);
+		}
+		costs.set(origin, Double.doubleToLongBits(0));
+
+		TreeMap<Long, IntList> buckets = new TreeMap<Long, IntList>();
+		IntList start = new IntList();
+		start.add(origin);
+		buckets.put(0L, start);
+
+		int[] bucketStamps = new int[nodeNumber];
+		int phase = 0;
+		int bucketNumber = 0;
+		while (!buckets.isEmpty()) {
+			Map.Entry<Long, IntList> first = buckets.pollFirstEntry();
+			long bucket = first.getKey();
+			bucketNumber++;
+			IntList emptied = new IntList(); // nodos que han pasado por el cubo
+			IntList pending = first.getValue();
+			while (pending != null) {
+				phase++;
+				IntList frontier = new IntList();
+				for (int i = 0; i < pending.size; i++) {
+					int node = pending.values[i];
+					// Se descartan los repetidos y los que ya bajaron a otro cubo
+					if (phases[node] != phase && bucketOf(cost(node)) == bucket) {
+						phases[node] = phase;
+						frontier.add(node);
+						if (bucketStamps[node] != bucketNumber) {
+							bucketStamps[node] = bucketNumber;
+							emptied.add(node);
+						}
+					}
+				}
+				distribute(relax(frontier, LIGHT_EDGES), buckets);
+				pending = buckets.remove(bucket);
+			}
+			distribute(relax(emptied, HEAVY_EDGES), buckets);
+		}
+
+		int[] all = new int[nodeNumber];
+		for (int i = 0; i < nodeNumber; i++) {
+			all[i] = i;
+		}
+		pool.invoke(new RelaxTask(all, 0, nodeNumber, PREDECESSORS));
+
+		DijkstraDataClass dijkstra = new DijkstraDataClass(nodeNumber, origin);
+		for (int i = 0; i < nodeNumber; i++) {
+			dijkstra.updateDijkstraCostsD(i, cost(i));
+			dijkstra.updateDijkstraPathsP(i, i == origin ? DijkstraDataClass.NO_PREDECESSOR : predecessors.get(i));
+		}
+		return dijkstra;
+	}
+
+	/**
+	 * Devuelve el coste provisional de un nodo
+	 *
+	 * @param node indice del nodo
+	 * @return coste
+	 */
+	private double cost(int node) {
+		return Double.longBitsToDouble(costs.get(node));
+	}
+
+	/**
+	 * Devuelve el cubo que corresponde a un coste
+	 *
+	 * @param cost coste
+	 * @return numero de cubo
+	 */
+	private long bucketOf(double cost) {
+		return (long) Math.floor(cost / delta);
+	}
+
+	/**
+	 * Relaja en paralelo las aristas de los nodos dados
+	 *
+	 * @param nodes nodos
+	 * @param kind  LIGHT_EDGES o HEAVY_EDGES
+	 * @return nodos cuyo coste ha bajado (puede haber repetidos)
+	 */
+	private IntList relax(IntList nodes, int kind) {
+		if (nodes.size == 0) {
+			return nodes;
+		}
+		return pool.invoke(new RelaxTask(nodes.values, 0, nodes.size, kind));
+	}
+
+	/**
+	 * Mete cada nodo en el cubo de su coste actual
+	 *
+	 * @param nodes   nodos
+	 * @param buckets cubos
+	 */
+	private void distribute(IntList nodes, TreeMap<Long, IntList> buckets) {
+		for (int i = 0; i < nodes.size; i++) {
+			int node = nodes.values[i];
+			buckets.computeIfAbsent(bucketOf(cost(node)), key -> new IntList()).add(node);
+		}
+	}
+
+	/**
+	 * Baja el coste de un nodo si el nuevo es menor, sin bloqueos
+	 *
+	 * @param node    indice del nodo
+	 * @param newCost coste nuevo
+	 * @return true si el coste ha bajado
+	 */
+	private boolean decreaseCost(int node, double newCost) {
+		long newBits = Double.doubleToLongBits(newCost);
+		while (true) {
+			long currentBits = costs.get(node);
+			if (newBits >= currentBits) {
+				return false;
+			}
+			if (costs.compareAndSet(node, currentBits, newBits)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Se queda con el predecesor de menor indice
+	 *
+	 * @param node        indice del nodo
+	 * @param predecessor candidato a predecesor
+	 */
+	private void offerPredecessor(int node, int predecessor) {
+		while (true) {
+			int current = predecessors.get(node);
+			if (current != DijkstraDataClass.NO_PREDECESSOR && current <= predecessor) {
+				return;
+			}
+			if (predecessors.compareAndSet(node, current, predecessor)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Tarea que recorre las aristas de un rango de nodos. Divide el rango por la
+	 * mitad hasta NODES_PER_TASK nodos y junta las listas de nodos actualizados.
+	 */
+	private final class RelaxTask extends RecursiveTask<IntList> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] nodes;
+		private final int from;
+		private final int to;
+		private final int kind;
+
+		RelaxTask(int[] nodes, int from, int to, int kind) {
+			this.nodes = nodes;
+			this.from = from;
+			this.to = to;
+			this.kind = kind;
+		}
+
+		@Override
+		protected IntList compute() {
+			if (to - from > NODES_PER_TASK) {
+				int middle = (from + to) >>> 1;
+				RelaxTask right = new RelaxTask(nodes, middle, to, kind);
+				right.fork();
+				IntList updated = new RelaxTask(nodes, from, middle, kind).compute();
+				updated.addAll(right.join());
+				return updated;
+			}
+			IntList updated = new IntList();
+			for (int i = from; i < to; i++) {
+				int node = nodes[i];
+				double nodeCost = cost(node);
+				if (nodeCost == DijkstraDataClass.INFINITY) {
+					continue;
+				}
+				graph.forEachOutEdge(node, (destination, weight) -> {
+					double newCost = nodeCost + weight;
+					if (kind == PREDECESSORS) {
+						// Con pesos absorbidos por el redondeo (coste + peso == coste) dos nodos
+						// de igual coste se ofrecerian uno al otro y el camino seria un ciclo: en
+						// los empates solo vale un nodo que se relajo en una fase anterior
+						if (destination != node && newCost == cost(destination)
+								&& (nodeCost < cost(destination) || phases[node] < phases[destination])) {
+							offerPredecessor(destination, node);
+						}
+					} else if ((weight <= delta) == (kind == LIGHT_EDGES) && decreaseCost(destination, newCost)) {
+						updated.add(destination);
+					}
+				});
+			}
+			return updated;
+		}
+	}
+
+	/**
+	 * Lista de enteros que crece por duplicacion.
+	 */
+	private static final class IntList {
+
+		int[] values = new int[8];
+		int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		void addAll(IntList other) {
+			if (size + other.size > values.length) {
+				values = Arrays.copyOf(values, Math.max(size + other.size, size * 2));
+			}
+			System.arraycopy(other.values, 0, values, size, other.size);
+			size += other.size;
+		}
+	}
+}
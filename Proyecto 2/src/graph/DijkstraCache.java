@@ -0,0 +1,127 @@
+package graph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU de resultados de Dijkstra por nodo origen. Cada resultado vale para
+ * una version concreta del grafo (su contador de modificaciones): si el grafo
+ * cambia, la siguiente consulta vacia la cache.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+class DijkstraCache {
+
+	private final LinkedHashMap<Integer, DijkstraDataClass> results;
+	private int capacity;
+	private long version;
+	private long hits;
+	private long misses;
+
+	/**
+	 * Constructor de DijkstraCache que recibe capacity como parametro
+	 *
+	 * @param capacity numero maximo de origenes guardados
+	 */
+	DijkstraCache(int capacity) {
+		setCapacity(capacity);
+		// orden de acceso: el primero es el menos usado recientemente
+		results = new LinkedHashMap<Integer, DijkstraDataClass>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, DijkstraDataClass> eldest) {
+				return size() > DijkstraCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * Devuelve la capacidad de la cache
+	 *
+	 * @return the capacity
+	 */
+	int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Establece la capacidad de la cache, descartando los resultados que sobren
+	 *
+	 * @param capacity capacidad, 0 para desactivar la cache
+	 */
+	void setCapacity(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity no puede ser < 0");
+		}
+		this.capacity = capacity;
+		if (results != null) {
+			while (results.size() > capacity) {
+				results.remove(results.keySet().iterator().next());
+			}
+		}
+	}
+
+	/**
+	 * Devuelve el resultado guardado para un origen, o null si no esta o es de
+	 * otra version del grafo.
+	 *
+	 * @param originIndex  indice del nodo origen
+	 * @param graphVersion version actual del grafo
+	 * @return resultado o null
+	 */
+	DijkstraDataClass get(int originIndex, long graphVersion) {
+		if (graphVersion != version) {
+			results.clear();
+			version = graphVersion;
+		}
+		DijkstraDataClass result = results.get(originIndex);
+		if (result == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return result;
+	}
+
+	/**
+	 * Guarda el resultado de un origen para la version dada del grafo.
+	 *
+	 * @param originIndex  indice del nodo origen
+	 * @param graphVersion version del grafo con la que se calculo
+	 * @param result       resultado de Dijkstra
+	 */
+	void put(int originIndex, long graphVersion, DijkstraDataClass result) {
+		if (capacity == 0 || graphVersion != version) {
+			return;
+		}
+		results.put(originIndex, result);
+	}
+
+	/**
+	 * Devuelve el numero de resultados guardados
+	 *
+	 * @return numero de resultados
+	 */
+	int size() {
+		return results.size();
+	}
+
+	/**
+	 * Devuelve el numero de consultas resueltas desde la cache
+	 *
+	 * @return aciertos
+	 */
+	long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Devuelve el numero de consultas que tuvieron que ejecutar Dijkstra
+	 *
+	 * @return fallos
+	 */
+	long getMisses() {
+		return misses;
+	}
+}
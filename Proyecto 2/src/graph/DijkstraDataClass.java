@@ -1,5 +1,7 @@
 package graph;
 
+import java.util.Arrays;
+
 /**
  * @author Nestor
  * @version 2022-23
@@ -39,7 +41,24 @@ public class DijkstraDataClass {
 			}
 	    }
 	}
-	
+
+	/**
+	 * Constructor de DijkstraDataClass que recibe nodeNumber y startingNodeIndex
+	 * como parametros. Todos los costes empiezan a infinito salvo el del nodo
+	 * inicial; lo usan los motores que relajan las aristas del origen ellos mismos.
+	 *
+	 * @param nodeNumber        numero de nodos
+	 * @param startingNodeIndex indice del nodo inicial
+	 */
+	public DijkstraDataClass(int nodeNumber, int startingNodeIndex) {
+		this.startingNodeIndex = startingNodeIndex;
+		this.dijkstraCostsD = new double[nodeNumber];
+		this.dijkstraPathsP = new int[nodeNumber];
+		Arrays.fill(dijkstraCostsD, INFINITY);
+		Arrays.fill(dijkstraPathsP, NO_PREDECESSOR);
+		dijkstraCostsD[startingNodeIndex] = 0;
+	}
+
 	/**
 	 * Devuelve el pivote
 	 * 
@@ -0,0 +1,21 @@
+package graph;
+
+/**
+ * Motores disponibles para ejecutar el algoritmo de Dijkstra.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+public enum DijkstraMode {
+
+	/**
+	 * Version clasica: el pivote se elige recorriendo todo el vector de costes,
+	 * O(V^2).
+	 */
+	LINEAR_SCAN,
+
+	/**
+	 * El pivote se extrae de un monticulo de minimos indexado con decrease-key,
+	 * O((V+E) log V).
+	 */
+	BINARY_HEAP
+}
@@ -0,0 +1,172 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Espacio de trabajo reutilizable para ejecutar Dijkstra muchas veces sin crear
+ * objetos nuevos. Cada ejecucion tiene su propia marca (epoch): una entrada
+ * cuya marca no es la de la ultima ejecucion vale infinito, asi que no hace
+ * falta limpiar los vectores entre consultas.
+ *
+ * No es seguro compartir un workspace entre hilos; cada hilo debe usar el suyo.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+public class DijkstraWorkspace {
+
+	private double[] costs = new double[0];
+	private int[] predecessors = new int[0];
+	private int[] touchedStamps = new int[0]; // epoch en que se alcanzo cada nodo
+	private int[] settledStamps = new int[0]; // epoch en que se asento cada nodo
+	private IndexedMinHeap pending = new IndexedMinHeap(0);
+	private int epoch;
+	private int nodeCount;
+	private int startingNodeIndex = DijkstraDataClass.NO_PREDECESSOR;
+
+	private int pivot;
+	private double originToPivotCost;
+	private final IndexedGraph.EdgeVisitor relaxation = this::relax;
+
+	/**
+	 * Ejecuta Dijkstra desde el nodo de indice dado, sobrescribiendo el resultado
+	 * anterior. Solo reserva memoria si el grafo tiene mas nodos que la ejecucion
+	 * mas grande hasta ahora.
+	 *
+	 * @param graph grafo
+	 * @param index indice del nodo origen
+	 */
+	void run(IndexedGraph graph, int index) {
+		nextEpoch(graph.getIndexCount());
+		startingNodeIndex = index;
+		touch(index, 0, DijkstraDataClass.NO_PREDECESSOR);
+		pending.insertOrDecrease(index, 0);
+		while (!pending.isEmpty()) {
+			pivot = pending.extractMin();
+			settledStamps[pivot] = epoch;
+			originToPivotCost = costs[pivot];
+			graph.forEachOutEdge(pivot, relaxation);
+		}
+	}
+
+	/**
+	 * Prepara una nueva ejecucion: amplia los vectores si hace falta y cambia de
+	 * marca. Si la marca se desborda, se limpian los vectores de marcas.
+	 *
+	 * @param nodeNumber numero de nodos del grafo
+	 */
+	private void nextEpoch(int nodeNumber) {
+		if (nodeNumber > costs.length) {
+			costs = new double[nodeNumber];
+			predecessors = new int[nodeNumber];
+			touchedStamps = new int[nodeNumber];
+			settledStamps = new int[nodeNumber];
+			pending = new IndexedMinHeap(nodeNumber);
+			epoch = 0;
+		}
+		if (epoch == Integer.MAX_VALUE) {
+			Arrays.fill(touchedStamps, 0);
+			Arrays.fill(settledStamps, 0);
+			epoch = 0;
+		}
+		epoch++;
+		nodeCount = nodeNumber;
+	}
+
+	/**
+	 * Guarda el coste y el predecesor de un nodo en la ejecucion actual
+	 *
+	 * @param index       indice del nodo
+	 * @param cost        coste
+	 * @param predecessor predecesor
+	 */
+	private void touch(int index, double cost, int predecessor) {
+		touchedStamps[index] = epoch;
+		costs[index] = cost;
+		predecessors[index] = predecessor;
+	}
+
+	/**
+	 * Relaja la arista pivote -> destino.
+	 *
+	 * @param destinationIndex indice del nodo destino
+	 * @param weight           peso de la arista
+	 */
+	private void relax(int destinationIndex, double weight) {
+		if (settledStamps[destinationIndex] == epoch) {
+			return;
+		}
+		double newOriginToTargetCost = originToPivotCost + weight;
+		if (newOriginToTargetCost < getCost(destinationIndex)) {
+			touch(destinationIndex, newOriginToTargetCost, pivot);
+			pending.insertOrDecrease(destinationIndex, newOriginToTargetCost);
+		}
+	}
+
+	/**
+	 * Devuelve el indice del nodo origen de la ultima ejecucion
+	 *
+	 * @return indice del nodo origen
+	 */
+	public int getStartingNodeIndex() {
+		return startingNodeIndex;
+	}
+
+	/**
+	 * Devuelve el numero de nodos del grafo en la ultima ejecucion
+	 *
+	 * @return numero de nodos
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Devuelve el coste minimo desde el origen hasta un nodo
+	 *
+	 * @param index indice del nodo
+	 * @return coste o infinito si no es alcanzable
+	 */
+	public double getCost(int index) {
+		checkIndex(index);
+		return touchedStamps[index] == epoch ? costs[index] : DijkstraDataClass.INFINITY;
+	}
+
+	/**
+	 * Devuelve el predecesor de un nodo en el camino minimo desde el origen
+	 *
+	 * @param index indice del nodo
+	 * @return predecesor o NO_PREDECESSOR
+	 */
+	public int getPredecessor(int index) {
+		checkIndex(index);
+		return touchedStamps[index] == epoch ? predecessors[index] : DijkstraDataClass.NO_PREDECESSOR;
+	}
+
+	/**
+	 * Copia el resultado de la ultima ejecucion en un DijkstraDataClass nuevo
+	 *
+	 * @return DijkstraDataClass dijkstra
+	 */
+	public DijkstraDataClass toDijkstraDataClass() {
+		if (startingNodeIndex == DijkstraDataClass.NO_PREDECESSOR) {
+			throw new IllegalStateException("El workspace no se ha usado todavia");
+		}
+		DijkstraDataClass dijkstra = new DijkstraDataClass(nodeCount, startingNodeIndex);
+		for (int i = 0; i < nodeCount; i++) {
+			dijkstra.updateDijkstraCostsD(i, getCost(i));
+			dijkstra.updateDijkstraPathsP(i, getPredecessor(i));
+		}
+		return dijkstra;
+	}
+
+	/**
+	 * Lanza excepcion si el indice no es de la ultima ejecucion
+	 *
+	 * @param index indice
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= nodeCount) {
+			throw new IndexOutOfBoundsException("Indice fuera de rango: " + index);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Pesos en un double[][], la forma de siempre de {@link MatrixGraph}.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+final class DoubleWeightMatrix implements WeightMatrix {
+
+	private final double[][] rows;
+
+	/**
+	 * Constructor de DoubleWeightMatrix que recibe rows como parametro
+	 *
+	 * @param rows matriz cuadrada de pesos
+	 */
+	DoubleWeightMatrix(double[][] rows) {
+		this.rows = rows;
+	}
+
+	@Override
+	public double get(int row, int column) {
+		return rows[row][column];
+	}
+
+	@Override
+	public void set(int row, int column, double weight) {
+		rows[row][column] = weight;
+	}
+
+	@Override
+	public void clear(int row, int fromColumn, int toColumn) {
+		Arrays.fill(rows[row], fromColumn, toColumn, 0.0);
+	}
+
+	@Override
+	public WeightMatrix copyOf(int newDimension, int keep) {
+		double[][] copy = new double[newDimension][newDimension];
+		for (int row = 0; row < keep; row++) {
+			System.arraycopy(rows[row], 0, copy[row], 0, keep);
+		}
+		return new DoubleWeightMatrix(copy);
+	}
+
+	/**
+	 * Devuelve la matriz interna
+	 *
+	 * @return matriz de pesos
+	 */
+	@Override
+	public double[][] toArray() {
+		return rows;
+	}
+}
@@ -0,0 +1,65 @@
+package graph;
+
+/**
+ * Arista con peso entre dos nodos, usada para cargar aristas en bloque.
+ *
+ * @author Yaiza Fernandez Vega
+ *
+ * @param <T> tipo de los nodos
+ */
+public class Edge<T> {
+
+	private final T origin;
+	private final T destination;
+	private final double weight;
+
+	/**
+	 * Constructor de Edge que recibe origin, destination y weight como parametros
+	 *
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @param weight      peso
+	 */
+	public Edge(T origin, T destination, double weight) {
+		this.origin = origin;
+		this.destination = destination;
+		this.weight = weight;
+	}
+
+	/**
+	 * Devuelve el nodo origen
+	 *
+	 * @return the origin
+	 */
+	public T getOrigin() {
+		return origin;
+	}
+
+	/**
+	 * Devuelve el nodo destino
+	 *
+	 * @return the destination
+	 */
+	public T getDestination() {
+		return destination;
+	}
+
+	/**
+	 * Devuelve el peso
+	 *
+	 * @return the weight
+	 */
+	public double getWeight() {
+		return weight;
+	}
+
+	/**
+	 * Devuelve el toString de la clase.
+	 *
+	 * @return cadena
+	 */
+	@Override
+	public String toString() {
+		return origin + "->" + destination + " (" + weight + ")";
+	}
+}
@@ -0,0 +1,104 @@
+package graph;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Convierte los elementos de un grafo a bytes y de vuelta para
+ * {@link GraphFiles}. Se escribe sobre un DataOutput y se lee de un ByteBuffer
+ * (normalmente un fichero mapeado en memoria); ambos son big-endian.
+ *
+ * @author Yaiza Fernandez Vega
+ *
+ * @param <T> tipo de los elementos
+ */
+public interface ElementCodec<T> {
+
+	/**
+	 * Codec de Integer, 4 bytes
+	 */
+	ElementCodec<Integer> INTEGER = new ElementCodec<Integer>() {
+
+		@Override
+		public void write(Integer element, DataOutput out) throws IOException {
+			out.writeInt(element);
+		}
+
+		@Override
+		public Integer read(ByteBuffer in) {
+			return in.getInt();
+		}
+	};
+
+	/**
+	 * Codec de Long, 8 bytes
+	 */
+	ElementCodec<Long> LONG = new ElementCodec<Long>() {
+
+		@Override
+		public void write(Long element, DataOutput out) throws IOException {
+			out.writeLong(element);
+		}
+
+		@Override
+		public Long read(ByteBuffer in) {
+			return in.getLong();
+		}
+	};
+
+	/**
+	 * Codec de Character, 2 bytes
+	 */
+	ElementCodec<Character> CHARACTER = new ElementCodec<Character>() {
+
+		@Override
+		public void write(Character element, DataOutput out) throws IOException {
+			out.writeChar(element);
+		}
+
+		@Override
+		public Character read(ByteBuffer in) {
+			return in.getChar();
+		}
+	};
+
+	/**
+	 * Codec de String: longitud en bytes (4 bytes) seguida del texto en UTF-8
+	 */
+	ElementCodec<String> STRING = new ElementCodec<String>() {
+
+		@Override
+		public void write(String element, DataOutput out) throws IOException {
+			byte[] bytes = element.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		@Override
+		public String read(ByteBuffer in) {
+			byte[] bytes = new byte[in.getInt()];
+			in.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	/**
+	 * Escribe un elemento
+	 *
+	 * @param element elemento, nunca null
+	 * @param out     salida
+	 * @throws IOException si falla la escritura
+	 */
+	void write(T element, DataOutput out) throws IOException;
+
+	/**
+	 * Lee un elemento a partir de la posicion actual del buffer, dejandola justo
+	 * despues del elemento
+	 *
+	 * @param in buffer
+	 * @return elemento leido
+	 */
+	T read(ByteBuffer in);
+}
@@ -0,0 +1,69 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Pesos en un unico array plano de double, fila tras fila: sin una cabecera de
+ * objeto por fila y con las filas contiguas en memoria.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+final class FlatDoubleWeightMatrix implements WeightMatrix {
+
+	private final double[] cells;
+	private final int dimension;
+
+	/**
+	 * Constructor de FlatDoubleWeightMatrix que recibe dimension como parametro
+	 *
+	 * @throws IllegalArgumentException si dimension x dimension no cabe en un array
+	 * @param dimension numero de filas y de columnas
+	 */
+	FlatDoubleWeightMatrix(int dimension) {
+		if ((long) dimension * dimension > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("dimension demasiado grande para una matriz plana");
+		}
+		this.dimension = dimension;
+		cells = new double[dimension * dimension];
+	}
+
+	@Override
+	public double get(int row, int column) {
+		return cells[row * dimension + column];
+	}
+
+	@Override
+	public void set(int row, int column, double weight) {
+		cells[row * dimension + column] = weight;
+	}
+
+	@Override
+	public void clear(int row, int fromColumn, int toColumn) {
+		Arrays.fill(cells, row * dimension + fromColumn, row * dimension + toColumn, 0);
+	}
+
+	@Override
+	public WeightMatrix copyOf(int newDimension, int keep) {
+		FlatDoubleWeightMatrix copy = new FlatDoubleWeightMatrix(newDimension);
+		for (int row = 0; row < keep; row++) {
+			System.arraycopy(cells, row * dimension, copy.cells, row * newDimension, keep);
+		}
+		return copy;
+	}
+
+	/**
+	 * Devuelve una copia de la matriz
+	 *
+	 * @return matriz de pesos
+	 */
+	@Override
+	public double[][] toArray() {
+		double[][] result = new double[dimension][dimension];
+		for (int row = 0; row < dimension; row++) {
+			for (int column = 0; column < dimension; column++) {
+				result[row][column] = cells[row * dimension + column];
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,69 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Pesos en un unico array plano de float, fila tras fila: sin una cabecera de
+ * objeto por fila y con las filas contiguas en memoria.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+final class FlatFloatWeightMatrix implements WeightMatrix {
+
+	private final float[] cells;
+	private final int dimension;
+
+	/**
+	 * Constructor de FlatFloatWeightMatrix que recibe dimension como parametro
+	 *
+	 * @throws IllegalArgumentException si dimension x dimension no cabe en un array
+	 * @param dimension numero de filas y de columnas
+	 */
+	FlatFloatWeightMatrix(int dimension) {
+		if ((long) dimension * dimension > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("dimension demasiado grande para una matriz plana");
+		}
+		this.dimension = dimension;
+		cells = new float[dimension * dimension];
+	}
+
+	@Override
+	public double get(int row, int column) {
+		return cells[row * dimension + column];
+	}
+
+	@Override
+	public void set(int row, int column, double weight) {
+		cells[row * dimension + column] = (float) weight;
+	}
+
+	@Override
+	public void clear(int row, int fromColumn, int toColumn) {
+		Arrays.fill(cells, row * dimension + fromColumn, row * dimension + toColumn, 0);
+	}
+
+	@Override
+	public WeightMatrix copyOf(int newDimension, int keep) {
+		FlatFloatWeightMatrix copy = new FlatFloatWeightMatrix(newDimension);
+		for (int row = 0; row < keep; row++) {
+			System.arraycopy(cells, row * dimension, copy.cells, row * newDimension, keep);
+		}
+		return copy;
+	}
+
+	/**
+	 * Devuelve una copia de la matriz
+	 *
+	 * @return matriz de pesos
+	 */
+	@Override
+	public double[][] toArray() {
+		double[][] result = new double[dimension][dimension];
+		for (int row = 0; row < dimension; row++) {
+			for (int column = 0; column < dimension; column++) {
+				result[row][column] = cells[row * dimension + column];
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,28 @@
+package graph;
+
+/**
+ * Formas de calcular los caminos minimos entre todos los pares de nodos en
+ * {@link MatrixGraph#floyd()}.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+public enum FloydMode {
+
+	/**
+	 * Triple bucle clasico de Floyd-Warshall en un solo hilo.
+	 */
+	SEQUENTIAL,
+
+	/**
+	 * Floyd-Warshall por bloques (tiles): primero el bloque diagonal, despues los
+	 * bloques de su fila y columna y por ultimo el resto, en paralelo sobre un
+	 * ForkJoinPool.
+	 */
+	BLOCKED_PARALLEL,
+
+	/**
+	 * Un Dijkstra con monticulo por cada origen, en paralelo sobre un
+	 * ForkJoinPool, O(V E log V). Mejor que Floyd en grafos dispersos.
+	 */
+	JOHNSON
+}
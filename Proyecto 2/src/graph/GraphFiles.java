@@ -0,0 +1,634 @@
+package graph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Lectura y escritura de grafos en un formato binario compacto. La escritura
+ * va por bloques sobre un FileChannel y la lectura mapea el fichero en memoria
+ * con {@link FileChannel#map}, copiando los arrays en bloque, sin pasar por
+ * addNode ni addEdge.
+ * <p>
+ * Formato (big-endian):
+ * <ul>
+ * <li>Cabecera: MAGIC, FORMAT_VERSION, flags, numero de nodos (n), numero de
+ * aristas (e), version del grafo (long) y bytes de la tabla de nodos
+ * (long).</li>
+ * <li>Tabla de nodos: los n elementos codificados con un
+ * {@link ElementCodec}, por indice.</li>
+ * <li>Aristas en formato CSR: n + 1 offsets, e destinos y e pesos.</li>
+ * <li>Si flags tiene FLAG_FLOYD: las n x n celdas de la matriz A de Floyd y
+ * despues las de la matriz P, fila tras fila.</li>
+ * </ul>
+ *
+ * @author Yaiza Fernandez Vega
+ */
+public final class GraphFiles {
+
+	static final int MAGIC = 0x47524146; // "GRAF"
+	static final int FORMAT_VERSION = 1;
+	static final int FLAG_FLOYD = 1;
+	static final int FLOYD_MAGIC = 0x464C4F59; // "FLOY"
+	static final int FLOYD_FORMAT_VERSION = 1;
+
+	private static final int BUFFER_BYTES = 1 << 16;
+	private static final int MAX_WINDOW_BYTES = 1 << 30;
+	private static final int CHUNK_ELEMENTS = 1 << 20;
+	private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Clase de utilidades, no se instancia
+	 */
+	private GraphFiles() {
+	}
+
+	/**
+	 * Escribe un MatrixGraph en un fichero
+	 *
+	 * @param graph        grafo
+	 * @param file         fichero, se sobrescribe si existe
+	 * @param codec        codec de los elementos
+	 * @param includeFloyd si es true se guardan tambien las matrices de Floyd
+	 *                     (calculandolas si hace falta)
+	 * @throws IOException si falla la escritura
+	 */
+	public static <T> void write(MatrixGraph<T> graph, Path file, ElementCodec<T> codec, boolean includeFloyd)
+			throws IOException {
+		GraphSnapshot<T> snapshot = graph.freeze();
+		if (includeFloyd && snapshot.getSize() > 0) {
+			graph.updateFloyd();
+			writeFile(snapshot, file, codec, graph.getFloydCostsA(), graph.getFloydPathsP());
+		} else {
+			writeFile(snapshot, file, codec, null, null);
+		}
+	}
+
+	/**
+	 * Escribe un snapshot en un fichero. Sirve para cualquier grafo que se pueda
+	 * congelar (MatrixGraph, SparseGraph, ConcurrentMatrixGraph).
+	 *
+	 * @param snapshot snapshot del grafo
+	 * @param file     fichero, se sobrescribe si existe
+	 * @param codec    codec de los elementos
+	 * @throws IOException si falla la escritura
+	 */
+	public static <T> void write(GraphSnapshot<T> snapshot, Path file, ElementCodec<T> codec) throws IOException {
+		writeFile(snapshot, file, codec, null, null);
+	}
+
+	/**
+	 * Escribe el fichero
+	 *
+	 * @param snapshot snapshot del grafo
+	 * @param file     fichero
+	 * @param codec    codec de los elementos
+	 * @param costs    matriz A de Floyd o null
+	 * @param paths    matriz P de Floyd o null
+	 * @throws IOException si falla la escritura
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> void writeFile(GraphSnapshot<T> snapshot, Path file, ElementCodec<T> codec, double[][] costs,
+			int[][] paths) throws IOException {
+		if (codec == null) {
+			throw new NullPointerException("codec no puede ser null");
+		}
+		Object[] nodes = snapshot.getNodeArray();
+		ByteArrayOutputStream nodeTable = new ByteArrayOutputStream();
+		DataOutputStream nodeOut = new DataOutputStream(nodeTable);
+		for (Object node : nodes) {
+			codec.write((T) node, nodeOut);
+		}
+		nodeOut.flush();
+
+		int n = nodes.length;
+		try (ChannelOutput out = new ChannelOutput(file)) {
+			out.putInt(MAGIC);
+			out.putInt(FORMAT_VERSION);
+			out.putInt(costs != null ? FLAG_FLOYD : 0);
+			out.putInt(n);
+			out.putInt(snapshot.getEdgeCount());
+			out.putLong(snapshot.getVersion());
+			out.putLong(nodeTable.size());
+			out.putBytes(nodeTable.toByteArray());
+			out.putInts(snapshot.getOffsets(), 0, n + 1);
+			out.putInts(snapshot.getTargets(), 0, snapshot.getEdgeCount());
+			out.putDoubles(snapshot.getWeights(), 0, snapshot.getEdgeCount());
+			if (costs != null) {
+				for (int row = 0; row < n; row++) {
+					out.putDoubles(costs[row], 0, n);
+				}
+				for (int row = 0; row < n; row++) {
+					out.putInts(paths[row], 0, n);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Lee un fichero como un snapshot inmutable. Es la forma mas rapida de
+	 * cargar un grafo: los arrays del CSR se copian en bloque desde el fichero
+	 * mapeado. Las matrices de Floyd, si las hay, se ignoran.
+	 *
+	 * @param file  fichero
+	 * @param codec codec de los elementos
+	 * @return snapshot con el grafo del fichero
+	 * @throws IOException si falla la lectura o el fichero no es valido
+	 */
+	public static <T> GraphSnapshot<T> readSnapshot(Path file, ElementCodec<T> codec) throws IOException {
+		try (MappedInput in = new MappedInput(file)) {
+			Contents contents = readContents(in, codec);
+			return new GraphSnapshot<T>(contents.nodes, contents.offsets, contents.targets, contents.weights,
+					contents.version);
+		}
+	}
+
+	/**
+	 * Lee un fichero como un MatrixGraph growable con almacenamiento STANDARD
+	 *
+	 * @param file  fichero
+	 * @param codec codec de los elementos
+	 * @return grafo del fichero
+	 * @throws IOException si falla la lectura o el fichero no es valido
+	 */
+	public static <T> MatrixGraph<T> readMatrixGraph(Path file, ElementCodec<T> codec) throws IOException {
+		return readMatrixGraph(file, codec, MatrixStorage.STANDARD);
+	}
+
+	/**
+	 * Lee un fichero como un MatrixGraph growable con la capacidad justa. Si el
+	 * fichero trae las matrices de Floyd, el grafo queda con Floyd calculado.
+	 *
+	 * @param file    fichero
+	 * @param codec   codec de los elementos
+	 * @param storage forma de guardar las matrices
+	 * @return grafo del fichero
+	 * @throws IOException si falla la lectura o el fichero no es valido
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> MatrixGraph<T> readMatrixGraph(Path file, ElementCodec<T> codec, MatrixStorage storage)
+			throws IOException {
+		try (MappedInput in = new MappedInput(file)) {
+			Contents contents = readContents(in, codec);
+			int n = contents.nodes.length;
+			MatrixGraph<T> graph = new MatrixGraph<T>(Math.max(1, n), true, storage);
+			graph.addNodes(Arrays.asList((T[]) contents.nodes));
+			int[] origins = new int[contents.targets.length];
+			for (int row = 0; row < n; row++) {
+				Arrays.fill(origins, contents.offsets[row], contents.offsets[row + 1], row);
+			}
+			try {
+				for (double weight : contents.weights) {
+					graph.checkWeight(weight); // en LEAN_FLOAT tiene que caber en un float
+				}
+			} catch (IllegalArgumentException e) {
+				throw new IOException(e.getMessage(), e);
+			}
+			graph.writeEdges(origins, contents.targets, contents.weights, origins.length);
+			if ((contents.flags & FLAG_FLOYD) != 0 && n > 0) {
+				// Con STANDARD el grafo ya tiene sus matrices n x n: se leen sobre ellas
+				double[][] costs = graph.getFloydCostsA();
+				int[][] paths = graph.getFloydPathsP();
+				if (costs == null) {
+					costs = new double[n][n];
+					paths = new int[n][n];
+				}
+				for (int row = 0; row < n; row++) {
+					in.getDoubles(costs[row], 0, n);
+				}
+				for (int row = 0; row < n; row++) {
+					in.getInts(paths[row], 0, n);
+				}
+				graph.restoreFloyd(costs, paths);
+			}
+			return graph;
+		}
+	}
+
+	/**
+	 * Guarda las matrices de Floyd de un grafo (calculandolas si hace falta)
+	 * junto con una suma de control CRC32 de su estructura, para poder
+	 * reutilizarlas con {@link #readFloyd(MatrixGraph, Path)} en otro proceso.
+	 * <p>
+	 * Formato (big-endian): FLOYD_MAGIC, FLOYD_FORMAT_VERSION, numero de nodos
+	 * (n), suma de control (long) y las n x n celdas de A y despues las de P,
+	 * fila tras fila.
+	 *
+	 * @param graph grafo
+	 * @param file  fichero, se sobrescribe si existe
+	 * @return true si se guardo, false si el grafo esta vacio
+	 * @throws IOException si falla la escritura
+	 */
+	public static <T> boolean writeFloyd(MatrixGraph<T> graph, Path file) throws IOException {
+		int n = graph.getSize();
+		if (n == 0) {
+			return false;
+		}
+		graph.updateFloyd();
+		double[][] costs = graph.getFloydCostsA();
+		int[][] paths = graph.getFloydPathsP();
+		try (ChannelOutput out = new ChannelOutput(file)) {
+			out.putInt(FLOYD_MAGIC);
+			out.putInt(FLOYD_FORMAT_VERSION);
+			out.putInt(n);
+			out.putLong(graph.structureChecksum());
+			for (int row = 0; row < n; row++) {
+				out.putDoubles(costs[row], 0, n);
+			}
+			for (int row = 0; row < n; row++) {
+				out.putInts(paths[row], 0, n);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Carga en un grafo las matrices de Floyd guardadas con
+	 * {@link #writeFloyd(MatrixGraph, Path)}, que se leen del fichero mapeado en
+	 * memoria sin recalcular nada. Si el fichero no es de Floyd, es de otra
+	 * version o su suma de control no coincide con la estructura actual del
+	 * grafo, se recalcula Floyd con floyd().
+	 *
+	 * @param graph grafo
+	 * @param file  fichero
+	 * @return true si se usaron las matrices del fichero, false si se recalculo
+	 * @throws IOException si no se puede leer el fichero
+	 */
+	public static <T> boolean readFloyd(MatrixGraph<T> graph, Path file) throws IOException {
+		try (MappedInput in = new MappedInput(file)) {
+			int n = graph.getSize();
+			if (n > 0 && in.getInt() == FLOYD_MAGIC && in.getInt() == FLOYD_FORMAT_VERSION && in.getInt() == n
+					&& in.getLong() == graph.structureChecksum()) {
+				int capacity = graph.getCapacity();
+				double[][] costs = new double[capacity][capacity];
+				int[][] paths = new int[capacity][capacity];
+				for (int row = 0; row < n; row++) {
+					in.getDoubles(costs[row], 0, n);
+				}
+				for (int row = 0; row < n; row++) {
+					in.getInts(paths[row], 0, n);
+				}
+				graph.restoreFloyd(costs, paths);
+				if (graph.isFloydUpToDate()) {
+					return true; // con siguientes saltos no basta con las matrices guardadas
+				}
+			}
+		} catch (EOFException e) {
+			// Fichero truncado: se recalcula
+		}
+		graph.floyd();
+		return false;
+	}
+
+	/**
+	 * Lee y valida la cabecera, los nodos y las aristas
+	 *
+	 * @param in    fichero mapeado
+	 * @param codec codec de los elementos
+	 * @return contenido leido
+	 * @throws IOException si el fichero no es valido
+	 */
+	private static <T> Contents readContents(MappedInput in, ElementCodec<T> codec) throws IOException {
+		if (codec == null) {
+			throw new NullPointerException("codec no puede ser null");
+		}
+		if (in.getInt() != MAGIC) {
+			throw new IOException("El fichero no es un grafo");
+		}
+		int formatVersion = in.getInt();
+		if (formatVersion != FORMAT_VERSION) {
+			throw new IOException("Version de formato no soportada: " + formatVersion);
+		}
+		Contents contents = new Contents();
+		contents.flags = in.getInt();
+		int n = in.getInt();
+		int edges = in.getInt();
+		contents.version = in.getLong();
+		long nodeTableBytes = in.getLong();
+		if (n < 0 || n > MAX_ARRAY_LENGTH - 1 || edges < 0 || edges > MAX_ARRAY_LENGTH || nodeTableBytes < 0) {
+			throw new IOException("Cabecera corrupta");
+		}
+		// Antes de reservar nada, las secciones que anuncia la cabecera tienen que
+		// caber en lo que queda del fichero
+		long remaining = in.remaining() - 4L * (n + 1) - 12L * edges;
+		if (nodeTableBytes > remaining
+				|| (contents.flags & FLAG_FLOYD) != 0 && (long) n * n > (remaining - nodeTableBytes) / 12) {
+			throw new EOFException("Fichero truncado o cabecera corrupta");
+		}
+
+		contents.nodes = new Object[n];
+		ByteBuffer nodeTable = in.take(nodeTableBytes);
+		Set<Object> seen = new HashSet<Object>((int) Math.min(MAX_ARRAY_LENGTH, n * 4L / 3 + 1));
+		try {
+			for (int i = 0; i < n; i++) {
+				T node = codec.read(nodeTable);
+				if (node == null || !seen.add(node)) {
+					throw new IOException("Nodo nulo o repetido en la posicion " + i);
+				}
+				contents.nodes[i] = node;
+			}
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Tabla de nodos truncada", e);
+		}
+		if (nodeTable.hasRemaining()) {
+			throw new IOException("Tabla de nodos corrupta");
+		}
+
+		contents.offsets = new int[n + 1];
+		contents.targets = new int[edges];
+		contents.weights = new double[edges];
+		in.getInts(contents.offsets, 0, n + 1);
+		in.getInts(contents.targets, 0, edges);
+		in.getDoubles(contents.weights, 0, edges);
+		if (contents.offsets[0] != 0 || contents.offsets[n] != edges) {
+			throw new IOException("Aristas corruptas");
+		}
+		for (int row = 0; row < n; row++) {
+			int previous = -1;
+			if (contents.offsets[row + 1] < contents.offsets[row]) {
+				throw new IOException("Aristas corruptas");
+			}
+			for (int i = contents.offsets[row]; i < contents.offsets[row + 1]; i++) {
+				int target = contents.targets[i];
+				if (target <= previous || target >= n || !(contents.weights[i] > 0)) {
+					throw new IOException("Arista corrupta en la posicion " + i);
+				}
+				previous = target;
+			}
+		}
+		return contents;
+	}
+
+	/**
+	 * Contenido comun de los ficheros
+	 */
+	private static final class Contents {
+		int flags;
+		long version;
+		Object[] nodes;
+		int[] offsets;
+		int[] targets;
+		double[] weights;
+	}
+
+	/**
+	 * Escritura por bloques sobre un FileChannel a traves de un buffer directo.
+	 */
+	static final class ChannelOutput implements Closeable {
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+		/**
+		 * Constructor de ChannelOutput que recibe file como parametro
+		 *
+		 * @param file fichero, se sobrescribe si existe
+		 * @throws IOException si no se puede abrir
+		 */
+		ChannelOutput(Path file) throws IOException {
+			channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		/**
+		 * Vacia el buffer si no quedan al menos bytes bytes libres
+		 *
+		 * @param bytes bytes necesarios
+		 * @throws IOException si falla la escritura
+		 */
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				flush();
+			}
+		}
+
+		/**
+		 * Escribe en el canal el contenido del buffer
+		 *
+		 * @throws IOException si falla la escritura
+		 */
+		private void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		/**
+		 * Escribe un int
+		 *
+		 * @param value valor
+		 * @throws IOException si falla la escritura
+		 */
+		void putInt(int value) throws IOException {
+			ensure(Integer.BYTES);
+			buffer.putInt(value);
+		}
+
+		/**
+		 * Escribe un long
+		 *
+		 * @param value valor
+		 * @throws IOException si falla la escritura
+		 */
+		void putLong(long value) throws IOException {
+			ensure(Long.BYTES);
+			buffer.putLong(value);
+		}
+
+		/**
+		 * Escribe un array de bytes
+		 *
+		 * @param values valores
+		 * @throws IOException si falla la escritura
+		 */
+		void putBytes(byte[] values) throws IOException {
+			for (int from = 0; from < values.length;) {
+				ensure(1);
+				int chunk = Math.min(values.length - from, buffer.remaining());
+				buffer.put(values, from, chunk);
+				from += chunk;
+			}
+		}
+
+		/**
+		 * Escribe un tramo de un array de int
+		 *
+		 * @param values valores
+		 * @param from   primera posicion
+		 * @param length numero de valores
+		 * @throws IOException si falla la escritura
+		 */
+		void putInts(int[] values, int from, int length) throws IOException {
+			while (length > 0) {
+				ensure(Integer.BYTES);
+				int chunk = Math.min(length, buffer.remaining() / Integer.BYTES);
+				buffer.asIntBuffer().put(values, from, chunk);
+				buffer.position(buffer.position() + chunk * Integer.BYTES);
+				from += chunk;
+				length -= chunk;
+			}
+		}
+
+		/**
+		 * Escribe un tramo de un array de double
+		 *
+		 * @param values valores
+		 * @param from   primera posicion
+		 * @param length numero de valores
+		 * @throws IOException si falla la escritura
+		 */
+		void putDoubles(double[] values, int from, int length) throws IOException {
+			while (length > 0) {
+				ensure(Double.BYTES);
+				int chunk = Math.min(length, buffer.remaining() / Double.BYTES);
+				buffer.asDoubleBuffer().put(values, from, chunk);
+				buffer.position(buffer.position() + chunk * Double.BYTES);
+				from += chunk;
+				length -= chunk;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Lectura secuencial de un fichero mapeado en memoria. Un MappedByteBuffer no
+	 * pasa de 2 GB, asi que el fichero se mapea por ventanas de hasta 1 GB que se
+	 * van moviendo segun se lee.
+	 */
+	static final class MappedInput implements Closeable {
+
+		private final FileChannel channel;
+		private final long fileSize;
+		private MappedByteBuffer window;
+		private long windowStart;
+		private long position;
+
+		/**
+		 * Constructor de MappedInput que recibe file como parametro
+		 *
+		 * @param file fichero
+		 * @throws IOException si no se puede abrir
+		 */
+		MappedInput(Path file) throws IOException {
+			channel = FileChannel.open(file, StandardOpenOption.READ);
+			fileSize = channel.size();
+		}
+
+		/**
+		 * Devuelve un buffer con los siguientes bytes del fichero y avanza la
+		 * posicion. Si no caben en la ventana actual, se mapea otra desde la
+		 * posicion actual.
+		 *
+		 * @param bytes numero de bytes, como mucho 1 GB
+		 * @return buffer con exactamente esos bytes
+		 * @throws IOException si el fichero se acaba antes
+		 */
+		ByteBuffer take(long bytes) throws IOException {
+			if (bytes > MAX_WINDOW_BYTES) {
+				throw new IOException("Seccion demasiado grande para mapearla de una vez");
+			}
+			if (position + bytes > fileSize) {
+				throw new EOFException("Fichero truncado");
+			}
+			if (window == null || position + bytes > windowStart + window.capacity()) {
+				windowStart = position;
+				window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+						Math.min(MAX_WINDOW_BYTES, fileSize - windowStart));
+			}
+			ByteBuffer slice = window.duplicate();
+			int offset = (int) (position - windowStart);
+			slice.limit(offset + (int) bytes).position(offset);
+			position += bytes;
+			return slice;
+		}
+
+		/**
+		 * Devuelve el numero de bytes que quedan por leer
+		 *
+		 * @return bytes restantes
+		 */
+		long remaining() {
+			return fileSize - position;
+		}
+
+		/**
+		 * Lee un int
+		 *
+		 * @return valor
+		 * @throws IOException si el fichero se acaba
+		 */
+		int getInt() throws IOException {
+			return take(Integer.BYTES).getInt();
+		}
+
+		/**
+		 * Lee un long
+		 *
+		 * @return valor
+		 * @throws IOException si el fichero se acaba
+		 */
+		long getLong() throws IOException {
+			return take(Long.BYTES).getLong();
+		}
+
+		/**
+		 * Lee un tramo de un array de int
+		 *
+		 * @param values array destino
+		 * @param from   primera posicion
+		 * @param length numero de valores
+		 * @throws IOException si el fichero se acaba
+		 */
+		void getInts(int[] values, int from, int length) throws IOException {
+			while (length > 0) {
+				int chunk = Math.min(length, CHUNK_ELEMENTS);
+				take((long) chunk * Integer.BYTES).asIntBuffer().get(values, from, chunk);
+				from += chunk;
+				length -= chunk;
+			}
+		}
+
+		/**
+		 * Lee un tramo de un array de double
+		 *
+		 * @param values array destino
+		 * @param from   primera posicion
+		 * @param length numero de valores
+		 * @throws IOException si el fichero se acaba
+		 */
+		void getDoubles(double[] values, int from, int length) throws IOException {
+			while (length > 0) {
+				int chunk = Math.min(length, CHUNK_ELEMENTS);
+				take((long) chunk * Double.BYTES).asDoubleBuffer().get(values, from, chunk);
+				from += chunk;
+				length -= chunk;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,412 @@
+package graph;
+
+import java.util.Arrays;
+
+import graph.exceptions.ElementNotPresentException;
+
+/**
+ * Copia inmutable y compacta de un grafo, pensada para servir consultas. Se
+ * obtiene con {@link MatrixGraph#freeze()}, {@link SparseGraph#freeze()} o
+ * leyendolo de un fichero con {@link GraphFiles#readSnapshot}.
+ * <ul>
+ * <li>Las aristas salientes de cada nodo van en formato CSR: offsets[i] ..
+ * offsets[i + 1] delimitan en targets y weights los destinos (ordenados por
+ * indice) y los pesos de las aristas de i.</li>
+ * <li>Los elementos se buscan en una tabla hash de direccionamiento abierto
+ * construida una sola vez, sin objetos por entrada.</li>
+ * </ul>
+ * Todos los campos son finales y ninguna consulta modifica nada, asi que un
+ * snapshot se puede compartir entre hilos sin sincronizacion. Los indices de
+ * los nodos son los que tenia el grafo al congelarlo.
+ *
+ * @author Yaiza Fernandez Vega
+ *
+ * @param <T> tipo de los nodos
+ */
+public final class GraphSnapshot<T> {
+
+	public static final int INDEX_NOT_FOUND = -1;
+	public static final int WEIGHT_NOT_FOUND = -1;
+
+	private final Object[] nodes;
+	private final int[] offsets;
+	private final int[] targets;
+	private final double[] weights;
+	private final long version;
+
+	private final Object[] tableKeys; // elementos, null en los huecos
+	private final int[] tableIndexes; // indice del elemento de la misma posicion
+	private final int tableMask;
+	private final int tableShift; // 32 - log2(tamaño de la tabla)
+
+	private final IndexedGraph indexedView = new IndexedView();
+
+	/**
+	 * Constructor de GraphSnapshot. Los arrays pasan a ser del snapshot y no se
+	 * deben modificar despues.
+	 *
+	 * @param nodes   elementos por indice
+	 * @param offsets inicio de las aristas de cada nodo, con nodes.length + 1
+	 *                posiciones
+	 * @param targets destinos de las aristas, ordenados dentro de cada nodo
+	 * @param weights pesos de las aristas
+	 * @param version version del grafo congelado
+	 */
+	GraphSnapshot(Object[] nodes, int[] offsets, int[] targets, double[] weights, long version) {
+		this.nodes = nodes;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.version = version;
+
+		// Tabla con factor de carga <= 0.5 para que las busquedas sean cortas
+		int tableSize = Integer.highestOneBit(Math.max(1, nodes.length) * 2 - 1) << 1;
+		tableKeys = new Object[tableSize];
+		tableIndexes = new int[tableSize];
+		tableMask = tableSize - 1;
+		tableShift = Integer.numberOfLeadingZeros(tableSize) + 1;
+		for (int i = 0; i < nodes.length; i++) {
+			int slot = slot(nodes[i]);
+			while (tableKeys[slot] != null) {
+				slot = (slot + 1) & tableMask;
+			}
+			tableKeys[slot] = nodes[i];
+			tableIndexes[slot] = i;
+		}
+	}
+
+	/**
+	 * Devuelve la posicion inicial de un elemento en la tabla hash. Se toman los
+	 * bits altos del producto, que dependen de todos los bits del hash; los bajos
+	 * solo dependen de los bits bajos y agruparian claves como los multiplos de
+	 * una potencia de dos.
+	 *
+	 * @param element elemento
+	 * @return posicion
+	 */
+	private int slot(Object element) {
+		return element.hashCode() * 0x9E3779B9 >>> tableShift;
+	}
+
+	/**
+	 * Devuelve la distancia maxima entre la posicion inicial de un elemento y la
+	 * posicion donde quedo en la tabla hash
+	 *
+	 * @return sondeo mas largo
+	 */
+	int longestProbe() {
+		int longest = 0;
+		for (int slot = 0; slot < tableKeys.length; slot++) {
+			if (tableKeys[slot] != null) {
+				longest = Math.max(longest, (slot - slot(tableKeys[slot])) & tableMask);
+			}
+		}
+		return longest;
+	}
+
+	/**
+	 * Devuelve el indice de un elemento
+	 *
+	 * @param element elemento
+	 * @return indice o INDEX_NOT_FOUND si no esta
+	 */
+	public int getNodeIndex(T element) {
+		checkNull(element);
+		for (int slot = slot(element);; slot = (slot + 1) & tableMask) {
+			Object key = tableKeys[slot];
+			if (key == null) {
+				return INDEX_NOT_FOUND;
+			}
+			if (key.equals(element)) {
+				return tableIndexes[slot];
+			}
+		}
+	}
+
+	/**
+	 * Devuelve el elemento de un indice
+	 *
+	 * @param index indice
+	 * @return elemento
+	 */
+	@SuppressWarnings("unchecked")
+	public T getNode(int index) {
+		if (index < 0 || index >= nodes.length) {
+			throw new IndexOutOfBoundsException("index fuera de rango: " + index);
+		}
+		return (T) nodes[index];
+	}
+
+	/**
+	 * Comprueba que el nodo no sea null
+	 *
+	 * @param element nodo
+	 */
+	private void checkNull(T element) {
+		if (element == null) {
+			throw new NullPointerException("element no puede ser null");
+		}
+	}
+
+	/**
+	 * Devuelve el indice de un nodo que tiene que existir
+	 *
+	 * @throws ElementNotPresentException si el nodo no esta
+	 * @param element nodo
+	 * @return indice
+	 */
+	private int getValidNodeIndex(T element) {
+		int index = getNodeIndex(element);
+		if (index == INDEX_NOT_FOUND) {
+			throw new ElementNotPresentException();
+		}
+		return index;
+	}
+
+	/**
+	 * Devuelve el numero de nodos
+	 *
+	 * @return numero de nodos
+	 */
+	public int getSize() {
+		return nodes.length;
+	}
+
+	/**
+	 * Devuelve el numero de aristas
+	 *
+	 * @return numero de aristas
+	 */
+	public int getEdgeCount() {
+		return targets.length;
+	}
+
+	/**
+	 * Devuelve la version (getModificationCount) que tenia el grafo al
+	 * congelarlo, o 0 si el grafo no lleva la cuenta
+	 *
+	 * @return version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Devuelve los elementos por indice, sin copiar
+	 *
+	 * @return elementos
+	 */
+	Object[] getNodeArray() {
+		return nodes;
+	}
+
+	/**
+	 * Devuelve el inicio de las aristas de cada nodo, sin copiar
+	 *
+	 * @return offsets
+	 */
+	int[] getOffsets() {
+		return offsets;
+	}
+
+	/**
+	 * Devuelve los destinos de las aristas, sin copiar
+	 *
+	 * @return targets
+	 */
+	int[] getTargets() {
+		return targets;
+	}
+
+	/**
+	 * Devuelve los pesos de las aristas, sin copiar
+	 *
+	 * @return weights
+	 */
+	double[] getWeights() {
+		return weights;
+	}
+
+	/**
+	 * Comprueba si existe un nodo
+	 *
+	 * @param element nodo
+	 * @return true si existe, false en caso contrario
+	 */
+	public boolean existsNode(T element) {
+		return getNodeIndex(element) != INDEX_NOT_FOUND;
+	}
+
+	/**
+	 * Devuelve la posicion en targets de la arista origen -> destino
+	 *
+	 * @param origin      indice origen
+	 * @param destination indice destino
+	 * @return posicion o un valor negativo si no existe
+	 */
+	private int edgePosition(int origin, int destination) {
+		return Arrays.binarySearch(targets, offsets[origin], offsets[origin + 1], destination);
+	}
+
+	/**
+	 * Comprueba si existe una arista, O(log grado)
+	 *
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @return true si existe, false en caso contrario
+	 */
+	public boolean existsEdge(T originElement, T destinationElement) {
+		int originIndex = getNodeIndex(originElement);
+		int destinationIndex = getNodeIndex(destinationElement);
+		if (originIndex == INDEX_NOT_FOUND || destinationIndex == INDEX_NOT_FOUND) {
+			return false;
+		}
+		return edgePosition(originIndex, destinationIndex) >= 0;
+	}
+
+	/**
+	 * Devuelve el peso de una arista, O(log grado)
+	 *
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @return peso o WEIGHT_NOT_FOUND si no hay arista
+	 */
+	public double getWeight(T originElement, T destinationElement) {
+		int originIndex = getValidNodeIndex(originElement);
+		int destinationIndex = getValidNodeIndex(destinationElement);
+		int position = edgePosition(originIndex, destinationIndex);
+		return position >= 0 ? weights[position] : WEIGHT_NOT_FOUND;
+	}
+
+	/**
+	 * Devuelve el numero de aristas que salen de un nodo
+	 *
+	 * @param element nodo
+	 * @return grado de salida
+	 */
+	public int getOutDegree(T element) {
+		int index = getValidNodeIndex(element);
+		return offsets[index + 1] - offsets[index];
+	}
+
+	/**
+	 * Ejecuta Dijkstra con monticulo desde un nodo origen. Da los mismos costes y
+	 * predecesores que {@link MatrixGraph#dijkstra(Object)} sobre el grafo
+	 * congelado.
+	 *
+	 * @param startingElement nodo origen
+	 * @return DijkstraDataClass dijkstra
+	 */
+	public DijkstraDataClass dijkstra(T startingElement) {
+		return HeapDijkstra.run(indexedView, getValidNodeIndex(startingElement));
+	}
+
+	/**
+	 * Devuelve el coste minimo entre dos nodos con un Dijkstra que para al llegar
+	 * al destino
+	 *
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @return coste minimo o infinito si no hay camino
+	 */
+	public double minimumCostPathDijkstra(T origin, T destination) {
+		int originIndex = getValidNodeIndex(origin);
+		int destinationIndex = getValidNodeIndex(destination);
+		return ShortestPathSearch.dijkstra(indexedView, originIndex, destinationIndex).cost;
+	}
+
+	/**
+	 * Realiza un recorrido en profundidad desde un nodo, con el mismo orden y
+	 * formato que {@link MatrixGraph#printDepthFirstTraversal(Object)}
+	 *
+	 * @param origin nodo origen
+	 * @return cadena con el recorrido
+	 */
+	public String printDepthFirstTraversal(T origin) {
+		int originIndex = getValidNodeIndex(origin);
+		boolean[] visited = new boolean[nodes.length];
+		int[] stack = new int[nodes.length];
+		int[] cursors = new int[nodes.length]; // siguiente posicion de targets a mirar
+		StringBuilder path = new StringBuilder();
+		visited[originIndex] = true;
+		path.append(nodes[originIndex]).append('-');
+		stack[0] = originIndex;
+		cursors[0] = offsets[originIndex];
+		int depth = 1;
+		while (depth > 0) {
+			int top = depth - 1;
+			int node = stack[top];
+			int position = cursors[top];
+			while (position < offsets[node + 1] && visited[targets[position]]) {
+				position++;
+			}
+			if (position == offsets[node + 1]) {
+				depth--;
+				continue;
+			}
+			int neighbour = targets[position];
+			cursors[top] = position + 1;
+			visited[neighbour] = true;
+			path.append(nodes[neighbour]).append('-');
+			stack[depth] = neighbour;
+			cursors[depth] = offsets[neighbour];
+			depth++;
+		}
+		return path.toString();
+	}
+
+	/**
+	 * Comprueba si existe un camino del nodo origen al nodo destino con un
+	 * recorrido en anchura que para al encontrar el destino, O(V + E). Todo nodo
+	 * se alcanza a si mismo.
+	 *
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @return true si destino es alcanzable desde origen, false en caso contrario
+	 */
+	public boolean isReachable(T origin, T destination) {
+		int originIndex = getValidNodeIndex(origin);
+		int destinationIndex = getValidNodeIndex(destination);
+		if (originIndex == destinationIndex) {
+			return true;
+		}
+		boolean[] visited = new boolean[nodes.length];
+		int[] queue = new int[nodes.length];
+		int head = 0;
+		int tail = 0;
+		visited[originIndex] = true;
+		queue[tail++] = originIndex;
+		while (head < tail) {
+			int node = queue[head++];
+			for (int position = offsets[node]; position < offsets[node + 1]; position++) {
+				int neighbour = targets[position];
+				if (neighbour == destinationIndex) {
+					return true;
+				}
+				if (!visited[neighbour]) {
+					visited[neighbour] = true;
+					queue[tail++] = neighbour;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Vista por indices del snapshot que usan los algoritmos compartidos.
+	 */
+	private class IndexedView implements IndexedGraph {
+
+		@Override
+		public int getIndexCount() {
+			return nodes.length;
+		}
+
+		@Override
+		public void forEachOutEdge(int index, EdgeVisitor visitor) {
+			for (int position = offsets[index]; position < offsets[index + 1]; position++) {
+				visitor.visit(targets[position], weights[position]);
+			}
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package graph;
+
+/**
+ * Dijkstra con monticulo indexado sobre cualquier {@link IndexedGraph}. Solo
+ * recorre las aristas reales de cada pivote, O((V+E) log V) en grafos
+ * dispersos.
+ *
+ * Los empates se deshacen por indice de nodo, por lo que devuelve los mismos
+ * costes y predecesores que el Dijkstra clasico de {@link MatrixGraph}.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+final class HeapDijkstra implements IndexedGraph.EdgeVisitor {
+
+	private final DijkstraDataClass dijkstra;
+	private final boolean[] visitedPivotsS;
+	private final IndexedMinHeap pending;
+	private int pivot;
+	private double originToPivotCost;
+
+	/**
+	 * Constructor privado, se usa desde {@link #run(IndexedGraph, int)}
+	 *
+	 * @param nodeNumber numero de nodos
+	 * @param index      indice del nodo origen
+	 */
+	private HeapDijkstra(int nodeNumber, int index) {
+		dijkstra = new DijkstraDataClass(nodeNumber, index);
+		visitedPivotsS = new boolean[nodeNumber];
+		pending = new IndexedMinHeap(nodeNumber);
+	}
+
+	/**
+	 * Ejecuta Dijkstra desde el nodo de indice dado.
+	 *
+	 * @param graph grafo
+	 * @param index indice del nodo origen
+	 * @return DijkstraDataClass dijkstra
+	 */
+	static DijkstraDataClass run(IndexedGraph graph, int index) {
+		HeapDijkstra search = new HeapDijkstra(graph.getIndexCount(), index);
+		search.pending.insertOrDecrease(index, 0);
+		while (!search.pending.isEmpty()) {
+			search.pivot = search.pending.extractMin();
+			search.visitedPivotsS[search.pivot] = true;
+			search.originToPivotCost = search.dijkstra.getDijkstraCostsDValue(search.pivot);
+			graph.forEachOutEdge(search.pivot, search);
+		}
+		return search.dijkstra;
+	}
+
+	/**
+	 * Relaja la arista pivote -> destino.
+	 *
+	 * @param destinationIndex indice del nodo destino
+	 * @param weight           peso de la arista
+	 */
+	@Override
+	public void visit(int destinationIndex, double weight) {
+		if (visitedPivotsS[destinationIndex]) {
+			return;
+		}
+		double newOriginToTargetCost = originToPivotCost + weight;
+		if (newOriginToTargetCost < dijkstra.getDijkstraCostsDValue(destinationIndex)) {
+			dijkstra.updateDijkstraCostsD(destinationIndex, newOriginToTargetCost);
+			dijkstra.updateDijkstraPathsP(destinationIndex, pivot);
+			pending.insertOrDecrease(destinationIndex, newOriginToTargetCost);
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package graph;
+
+/**
+ * Vista de un grafo a traves de los indices internos de sus nodos. Permite que
+ * los algoritmos compartidos recorran solo las aristas reales de cada nodo, sea
+ * cual sea la representacion (matriz de adyacencia, CSR...).
+ *
+ * @author Yaiza Fernandez Vega
+ */
+interface IndexedGraph {
+
+	/**
+	 * Devuelve el numero de indices de nodo que usa el grafo. Los nodos ocupan
+	 * los indices 0..getIndexCount()-1.
+	 *
+	 * @return numero de indices
+	 */
+	int getIndexCount();
+
+	/**
+	 * Recorre las aristas salientes del nodo dado.
+	 *
+	 * @param index   indice del nodo origen
+	 * @param visitor accion a ejecutar por cada arista
+	 */
+	void forEachOutEdge(int index, EdgeVisitor visitor);
+
+	/**
+	 * Accion sobre una arista (indice destino, peso).
+	 */
+	@FunctionalInterface
+	interface EdgeVisitor {
+
+		/**
+		 * Visita una arista.
+		 *
+		 * @param destinationIndex indice del nodo destino
+		 * @param weight           peso de la arista
+		 */
+		void visit(int destinationIndex, double weight);
+	}
+}
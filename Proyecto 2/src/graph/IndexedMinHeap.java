@@ -0,0 +1,192 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Monticulo binario de minimos indexado por nodo. Cada nodo (0..capacity-1)
+ * aparece como mucho una vez y su prioridad puede decrementarse en O(log n).
+ *
+ * En caso de empate de costes se extrae primero el nodo de menor indice, de
+ * modo que el orden de extraccion coincide con el de
+ * {@link DijkstraDataClass#getPivot(boolean[], double[])}.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+class IndexedMinHeap {
+
+	static final int NOT_IN_HEAP = -1;
+
+	private int[] heap; // nodos ordenados como monticulo
+	private int[] positions; // posicion de cada nodo en heap o NOT_IN_HEAP
+	private double[] keys; // prioridad de cada nodo
+	private int size;
+
+	/**
+	 * Constructor de IndexedMinHeap que recibe capacity como parametro
+	 *
+	 * @param capacity numero de nodos distintos que se pueden insertar
+	 */
+	IndexedMinHeap(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("capacity no puede ser < 0");
+		}
+		heap = new int[capacity];
+		positions = new int[capacity];
+		keys = new double[capacity];
+		Arrays.fill(positions, NOT_IN_HEAP);
+		size = 0;
+	}
+
+	/**
+	 * Devuelve true si el monticulo esta vacio
+	 *
+	 * @return true si esta vacio, false en caso contrario
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Devuelve el numero de nodos en el monticulo
+	 *
+	 * @return numero de nodos
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Comprueba si un nodo esta en el monticulo
+	 *
+	 * @param node nodo
+	 * @return true si esta, false en caso contrario
+	 */
+	boolean contains(int node) {
+		return positions[node] != NOT_IN_HEAP;
+	}
+
+	/**
+	 * Inserta un nodo o, si ya esta en el monticulo, decrementa su prioridad.
+	 *
+	 * @throws IllegalArgumentException si el nodo ya esta con una prioridad menor
+	 * @param node nodo
+	 * @param key  prioridad
+	 */
+	void insertOrDecrease(int node, double key) {
+		int position = positions[node];
+		if (position == NOT_IN_HEAP) {
+			position = size++;
+			heap[position] = node;
+			positions[node] = position;
+		} else if (key > keys[node]) {
+			throw new IllegalArgumentException("key no puede ser mayor que la actual");
+		}
+		keys[node] = key;
+		filterUp(position);
+	}
+
+	/**
+	 * Devuelve el nodo de menor prioridad sin extraerlo
+	 *
+	 * @return nodo de menor prioridad
+	 */
+	int peekMin() {
+		if (size == 0) {
+			throw new IllegalStateException("El monticulo esta vacio");
+		}
+		return heap[0];
+	}
+
+	/**
+	 * Devuelve la menor prioridad del monticulo
+	 *
+	 * @return menor prioridad o infinito si esta vacio
+	 */
+	double peekMinKey() {
+		return size == 0 ? Double.POSITIVE_INFINITY : keys[heap[0]];
+	}
+
+	/**
+	 * Extrae el nodo de menor prioridad
+	 *
+	 * @return nodo extraido
+	 */
+	int extractMin() {
+		int min = peekMin();
+		size--;
+		positions[min] = NOT_IN_HEAP;
+		if (size > 0) {
+			heap[0] = heap[size];
+			positions[heap[0]] = 0;
+			filterDown(0);
+		}
+		return min;
+	}
+
+	/**
+	 * Vacia el monticulo. Solo recorre los nodos que quedaban dentro, O(size).
+	 */
+	void clear() {
+		for (int i = 0; i < size; i++) {
+			positions[heap[i]] = NOT_IN_HEAP;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Comprueba si el nodo a tiene mas prioridad que el nodo b
+	 *
+	 * @param a nodo
+	 * @param b nodo
+	 * @return true si a va antes que b
+	 */
+	private boolean less(int a, int b) {
+		return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+	}
+
+	/**
+	 * Filtra hacia arriba el nodo de la posicion dada
+	 *
+	 * @param position posicion
+	 */
+	private void filterUp(int position) {
+		int node = heap[position];
+		while (position > 0) {
+			int parent = (position - 1) / 2;
+			if (!less(node, heap[parent])) {
+				break;
+			}
+			heap[position] = heap[parent];
+			positions[heap[position]] = position;
+			position = parent;
+		}
+		heap[position] = node;
+		positions[node] = position;
+	}
+
+	/**
+	 * Filtra hacia abajo el nodo de la posicion dada
+	 *
+	 * @param position posicion
+	 */
+	private void filterDown(int position) {
+		int node = heap[position];
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && less(heap[child + 1], heap[child])) {
+				child++;
+			}
+			if (!less(heap[child], node)) {
+				break;
+			}
+			heap[position] = heap[child];
+			positions[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = node;
+		positions[node] = position;
+	}
+}
@@ -0,0 +1,124 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Caminos minimos entre todos los pares con una busqueda de Dijkstra con
+ * monticulo por cada origen, O(V E log V). Es el algoritmo de Johnson sin la
+ * fase de Bellman-Ford: como addEdge solo admite pesos positivos no hace falta
+ * repesar las aristas.
+ *
+ * Los origenes se reparten entre tareas de un ForkJoinPool; cada tarea escribe
+ * solo las filas de sus origenes. Las matrices quedan con el mismo convenio que
+ * Floyd: floydPathsP guarda un nodo intermedio del camino (el predecesor del
+ * destino) o EMPTY si el camino es la arista directa.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+final class JohnsonAllPairs extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+	private static final int SOURCES_PER_TASK = 8;
+
+	private final transient IndexedGraph graph;
+	private final double[][] costs;
+	private final int[][] paths;
+	private final int[][] nextHops; // null si no se mantiene
+	private final int from;
+	private final int to;
+
+	/**
+	 * Constructor privado, se usa desde {@link #run}
+	 *
+	 * @param graph    grafo
+	 * @param costs    matriz de costes
+	 * @param paths    matriz de pivotes
+	 * @param nextHops matriz de siguientes saltos o null
+	 * @param from     primer origen de la tarea (incluido)
+	 * @param to       ultimo origen de la tarea (excluido)
+	 */
+	private JohnsonAllPairs(IndexedGraph graph, double[][] costs, int[][] paths, int[][] nextHops, int from,
+			int to) {
+		this.graph = graph;
+		this.costs = costs;
+		this.paths = paths;
+		this.nextHops = nextHops;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Rellena las filas 0..getIndexCount()-1 de las matrices.
+	 *
+	 * @param graph    grafo
+	 * @param costs    matriz de costes (floydCostsA)
+	 * @param paths    matriz de pivotes (floydPathsP)
+	 * @param nextHops matriz de siguientes saltos o null si no se mantiene
+	 * @param pool     pool en el que se ejecutan las tareas
+	 */
+	static void run(IndexedGraph graph, double[][] costs, int[][] paths, int[][] nextHops, ForkJoinPool pool) {
+		pool.invoke(new JohnsonAllPairs(graph, costs, paths, nextHops, 0, graph.getIndexCount()));
+	}
+
+	@Override
+	protected void compute() {
+		if (to - from > SOURCES_PER_TASK) {
+			int middle = (from + to) >>> 1;
+			invokeAll(new JohnsonAllPairs(graph, costs, paths, nextHops, from, middle),
+					new JohnsonAllPairs(graph, costs, paths, nextHops, middle, to));
+			return;
+		}
+		int size = graph.getIndexCount();
+		DijkstraWorkspace workspace = new DijkstraWorkspace();
+		int[] chain = new int[size];
+		for (int source = from; source < to; source++) {
+			workspace.run(graph, source);
+			fillRow(workspace, source, size, chain);
+		}
+	}
+
+	/**
+	 * Copia el resultado de Dijkstra desde un origen en su fila de las matrices
+	 *
+	 * @param workspace resultado de Dijkstra
+	 * @param source    indice del origen
+	 * @param size      numero de nodos
+	 * @param chain     array auxiliar de tamaño size
+	 */
+	private void fillRow(DijkstraWorkspace workspace, int source, int size, int[] chain) {
+		double[] costRow = costs[source];
+		int[] pathRow = paths[source];
+		for (int j = 0; j < size; j++) {
+			costRow[j] = workspace.getCost(j);
+			int predecessor = workspace.getPredecessor(j);
+			pathRow[j] = (predecessor == DijkstraDataClass.NO_PREDECESSOR || predecessor == source)
+					? MatrixGraph.EMPTY
+					: predecessor;
+		}
+		if (nextHops == null) {
+			return;
+		}
+		int[] nextRow = nextHops[source];
+		Arrays.fill(nextRow, 0, size, MatrixGraph.NO_NEXT_HOP);
+		nextRow[source] = source;
+		for (int j = 0; j < size; j++) {
+			if (nextRow[j] != MatrixGraph.NO_NEXT_HOP || costRow[j] == MatrixGraph.INFINITY) {
+				continue;
+			}
+			// Se sube por los predecesores hasta un nodo con el salto conocido
+			int length = 0;
+			int node = j;
+			while (nextRow[node] == MatrixGraph.NO_NEXT_HOP && workspace.getPredecessor(node) != source) {
+				chain[length++] = node;
+				node = workspace.getPredecessor(node);
+			}
+			int hop = nextRow[node] != MatrixGraph.NO_NEXT_HOP ? nextRow[node] : node;
+			nextRow[node] = hop;
+			while (length > 0) {
+				nextRow[chain[--length]] = hop;
+			}
+		}
+	}
+}
@@ -1,6 +1,30 @@
 package graph;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleBiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
 
 import graph.exceptions.ElementNotPresentException;
 import graph.exceptions.FullStructureException;
@@ -14,40 +38,152 @@ import graph.exceptions.FullStructureException;
 public class MatrixGraph<T> implements Graph<T> {
 
 	private T[] nodes;
-	private boolean[][] edges;
-	private double[][] weights;
+	private Map<T, Integer> nodeIndexes; // elemento -> indice en nodes
+	private BitMatrix edgeRows; // fila i: destinos de las aristas que salen de i
+	private BitMatrix edgeColumns; // fila j: origenes de las aristas que llegan a j
+	private int[] outDegrees;
+	private int[] inDegrees;
+	private int[] handleIndexes; // handle -> indice en nodes o NO_HANDLE si esta libre
+	private int[] indexHandles; // indice en nodes -> handle
+	private int[] freeHandles; // pila de handles liberados
+	private int freeHandleCount;
+	private int handleCount; // handles repartidos alguna vez
+	private WeightMatrix weights;
 	private int size;
 	private int capacity;
+	private boolean growable; // si es true la capacidad crece en vez de lanzar excepcion
+	private final MatrixStorage storage;
 
 	private double[][] floydCostsA;
 	private int[][] floydPathsP;
+	private boolean floydNextHopsEnabled;
+	private int[][] floydNextHops; // siguiente salto de cada camino, null si no se mantiene o no esta reservado
 	private boolean floydCalculated;
+	private int[] floydPendingEdges = new int[0]; // pares origen, destino pendientes
+	private int floydPendingCount;
+	private int floydUpdateThreshold = DEFAULT_FLOYD_UPDATE_THRESHOLD;
+	private BitMatrix reachability; // clausura transitiva, null hasta la primera consulta
+	private boolean reachabilityCalculated;
+
+	private long modificationCount; // se incrementa en cada cambio del grafo
+	private DijkstraMode dijkstraMode = DijkstraMode.LINEAR_SCAN;
+	private final DijkstraCache dijkstraCache = new DijkstraCache(DEFAULT_DIJKSTRA_CACHE_CAPACITY);
+	private FloydMode floydMode = FloydMode.SEQUENTIAL;
+	private int floydTileSize = DEFAULT_FLOYD_TILE_SIZE;
+	private ForkJoinPool parallelPool = ForkJoinPool.commonPool();
+	private final IndexedGraph indexedView = new IndexedView();
+	private final IndexedGraph reversedView = new ReversedView();
 
 	static final int INDEX_NOT_FOUND = -1;
 	static final int WEIGHT_NOT_FOUND = -1;
 	public static final double INFINITY = Double.POSITIVE_INFINITY;
 	public static final int NO_PREDECESSOR = -1;
 	public static final int EMPTY = -1;
+	public static final int NO_HANDLE = -1;
+	public static final int NO_NEXT_HOP = -1;
+	public static final int DEFAULT_FLOYD_TILE_SIZE = 64;
+	public static final int DEFAULT_FLOYD_UPDATE_THRESHOLD = 32;
+	public static final int DEFAULT_DIJKSTRA_CACHE_CAPACITY = 16;
 
 	/**
 	 * Constructor de MatrixGraph que recibe capacity como parametro
 	 * 
 	 * @param capacity capacidad
 	 */
-	@SuppressWarnings("unchecked")
 	public MatrixGraph(int capacity) {
+		this(capacity, false);
+	}
+
+	/**
+	 * Constructor de MatrixGraph que recibe capacity y growable como parametros.
+	 * Si growable es true, addNode amplia la capacidad en vez de lanzar
+	 * FullStructureException.
+	 * 
+	 * @param capacity capacidad inicial
+	 * @param growable si la capacidad crece automaticamente
+	 */
+	public MatrixGraph(int capacity, boolean growable) {
+		this(capacity, growable, MatrixStorage.STANDARD);
+	}
+
+	/**
+	 * Constructor de MatrixGraph que recibe capacity, growable y storage como
+	 * parametros. Con {@link MatrixStorage#LEAN} o
+	 * {@link MatrixStorage#LEAN_FLOAT} los pesos van en un array plano y las
+	 * matrices de Floyd no se reservan hasta el primer floyd(), por lo que un
+	 * grafo que nunca ejecuta Floyd ocupa entre 2.5 y 5 veces menos.
+	 * 
+	 * @param capacity capacidad inicial
+	 * @param growable si la capacidad crece automaticamente
+	 * @param storage  forma de guardar las matrices
+	 */
+	public MatrixGraph(int capacity, boolean growable, MatrixStorage storage) {
+		this(capacity, growable, storage, null);
+	}
+
+
+	/**
+	 * Constructor comun, con la matriz de pesos ya creada o null para crearla
+	 * segun storage
+	 * 
+	 * @param capacity capacidad inicial
+	 * @param growable si la capacidad crece automaticamente
+	 * @param storage  forma de guardar las matrices
+	 * @param weights  matriz de pesos o null
+	 */
+	@SuppressWarnings("unchecked")
+	private MatrixGraph(int capacity, boolean growable, MatrixStorage storage, WeightMatrix weights) {
 		if (capacity <= 0) {
 			throw new IllegalArgumentException("capacidad no puede ser <= 0");
 		}
+		if (storage == null) {
+			throw new NullPointerException("storage no puede ser null");
+		}
 		this.capacity = capacity;
+		this.growable = growable;
+		this.storage = storage;
 		nodes = (T[]) new Object[capacity];
-		weights = new double[capacity][capacity];
-		edges = new boolean[capacity][capacity];
-		floydCostsA = new double[capacity][capacity];
-		floydPathsP = new int[capacity][capacity];
+		nodeIndexes = new HashMap<T, Integer>(capacity * 4 / 3 + 1);
+		this.weights = weights != null ? weights : WeightMatrix.create(storage, capacity);
+		edgeRows = new BitMatrix(capacity);
+		edgeColumns = new BitMatrix(capacity);
+		outDegrees = new int[capacity];
+		inDegrees = new int[capacity];
+		handleIndexes = new int[capacity];
+		indexHandles = new int[capacity];
+		freeHandles = new int[capacity];
+		if (storage == MatrixStorage.STANDARD) {
+			floydCostsA = new double[capacity][capacity];
+			floydPathsP = new int[capacity][capacity];
+		}
 		size = 0;
 	}
 
+	/**
+	 * Crea un grafo con los pesos en {@link MatrixStorage#OFF_HEAP} sobre un
+	 * fichero mapeado en memoria, de forma que el sistema operativo puede llevar a
+	 * disco las partes que no se usan. El fichero es espacio de trabajo: su
+	 * contenido previo se pierde y para guardar el grafo esta {@link GraphFiles}.
+	 * 
+	 * @param <T>         tipo de los nodos
+	 * @param capacity    capacidad inicial
+	 * @param growable    si la capacidad crece automaticamente
+	 * @param weightsFile fichero de trabajo para los pesos
+	 * @return grafo vacio
+	 * @throws IOException si no se puede mapear el fichero
+	 */
+	public static <T> MatrixGraph<T> fileBacked(int capacity, boolean growable, Path weightsFile)
+			throws IOException {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacidad no puede ser <= 0");
+		}
+		if (weightsFile == null) {
+			throw new NullPointerException("weightsFile no puede ser null");
+		}
+		return new MatrixGraph<T>(capacity, growable, MatrixStorage.OFF_HEAP,
+				OffHeapWeightMatrix.mapped(capacity, weightsFile));
+	}
+
 	/**
 	 * Devuelve los nodos
 	 * 
@@ -58,21 +194,31 @@ public class MatrixGraph<T> implements Graph<T> {
 	}
 
 	/**
-	 * Devuelve la matriz de aristas
+	 * Devuelve una copia de la matriz de aristas
 	 * 
 	 * @return the edges
 	 */
 	public boolean[][] getEdges() {
-		return edges;
+		return edgeRows.toArray();
 	}
 
 	/**
-	 * Devuelve la matriz de pesos
+	 * Devuelve la matriz de pesos. Con {@link MatrixStorage#STANDARD} es la matriz
+	 * interna; con el resto de modos es una copia.
 	 * 
 	 * @return the weights
 	 */
 	public double[][] getWeights() {
-		return weights;
+		return weights.toArray();
+	}
+
+	/**
+	 * Devuelve la forma en que el grafo guarda sus matrices
+	 * 
+	 * @return the storage
+	 */
+	public MatrixStorage getStorage() {
+		return storage;
 	}
 
 	/**
@@ -85,7 +231,127 @@ public class MatrixGraph<T> implements Graph<T> {
 	}
 
 	/**
-	 * Devuelve floydCostsA
+	 * Devuelve si la capacidad crece automaticamente
+	 * 
+	 * @return the growable
+	 */
+	public boolean isGrowable() {
+		return growable;
+	}
+
+	/**
+	 * Establece si la capacidad crece automaticamente
+	 * 
+	 * @param growable si la capacidad crece automaticamente
+	 */
+	public void setGrowable(boolean growable) {
+		this.growable = growable;
+	}
+
+	/**
+	 * Se asegura de que caben al menos minCapacity nodos. Si no caben, la capacidad
+	 * crece un 50% (o hasta minCapacity si es mayor), de modo que añadir nodos de
+	 * uno en uno cuesta O(1) amortizado por nodo.
+	 * 
+	 * @param minCapacity capacidad minima
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > capacity) {
+			int grownCapacity = capacity + Math.max(1, capacity >> 1);
+			if (grownCapacity < 0) { // desbordamiento
+				grownCapacity = Integer.MAX_VALUE;
+			}
+			resize(Math.max(minCapacity, grownCapacity));
+		}
+	}
+
+	/**
+	 * Reduce la capacidad al numero de nodos actual (como minimo 1) para liberar
+	 * memoria. Si el grafo no es growable, el siguiente addNode lanzara
+	 * FullStructureException.
+	 */
+	public void trimToSize() {
+		int trimmedCapacity = Math.max(size, 1);
+		if (trimmedCapacity < capacity) {
+			resize(trimmedCapacity);
+		}
+	}
+
+	/**
+	 * Realoja todas las estructuras con otra capacidad, copiando por filas el
+	 * bloque de los nodos actuales.
+	 * 
+	 * @param newCapacity nueva capacidad, mayor o igual que size
+	 */
+	private void resize(int newCapacity) {
+		nodes = Arrays.copyOf(nodes, newCapacity);
+		weights = weights.copyOf(newCapacity, size);
+		edgeRows = edgeRows.copyOf(newCapacity, size);
+		edgeColumns = edgeColumns.copyOf(newCapacity, size);
+		outDegrees = Arrays.copyOf(outDegrees, newCapacity);
+		inDegrees = Arrays.copyOf(inDegrees, newCapacity);
+		indexHandles = Arrays.copyOf(indexHandles, newCapacity);
+		// Los handles vivos pueden ser mayores que size si hay handles libres
+		int handleCapacity = Math.max(newCapacity, handleCount);
+		handleIndexes = Arrays.copyOf(handleIndexes, handleCapacity);
+		freeHandles = Arrays.copyOf(freeHandles, handleCapacity);
+		if (floydCalculated) {
+			floydCostsA = copyBlock(floydCostsA, newCapacity);
+			floydPathsP = copyBlock(floydPathsP, newCapacity);
+		} else if (storage != MatrixStorage.STANDARD) {
+			floydCostsA = null; // se reservan en el siguiente floyd()
+			floydPathsP = null;
+		} else {
+			floydCostsA = new double[newCapacity][newCapacity];
+			floydPathsP = new int[newCapacity][newCapacity];
+		}
+		if (floydNextHopsEnabled && floydCalculated) {
+			floydNextHops = copyBlock(floydNextHops, newCapacity);
+		} else if (floydNextHopsEnabled && storage == MatrixStorage.STANDARD) {
+			floydNextHops = new int[newCapacity][newCapacity];
+		} else {
+			floydNextHops = null; // se reserva en el siguiente floyd() si se mantiene
+		}
+		if (reachabilityCalculated) {
+			reachability = reachability.copyOf(newCapacity, size);
+		} else {
+			reachability = null;
+		}
+		capacity = newCapacity;
+	}
+
+	/**
+	 * Copia el bloque size x size de una matriz en otra de la capacidad dada
+	 * 
+	 * @param matrix      matriz
+	 * @param newCapacity capacidad de la copia
+	 * @return copia
+	 */
+	private double[][] copyBlock(double[][] matrix, int newCapacity) {
+		double[][] copy = new double[newCapacity][newCapacity];
+		for (int row = 0; row < size; row++) {
+			System.arraycopy(matrix[row], 0, copy[row], 0, size);
+		}
+		return copy;
+	}
+
+	/**
+	 * Copia el bloque size x size de una matriz en otra de la capacidad dada
+	 * 
+	 * @param matrix      matriz
+	 * @param newCapacity capacidad de la copia
+	 * @return copia
+	 */
+	private int[][] copyBlock(int[][] matrix, int newCapacity) {
+		int[][] copy = new int[newCapacity][newCapacity];
+		for (int row = 0; row < size; row++) {
+			System.arraycopy(matrix[row], 0, copy[row], 0, size);
+		}
+		return copy;
+	}
+
+	/**
+	 * Devuelve floydCostsA. Salvo con STANDARD es null hasta el primer floyd().
 	 * 
 	 * @return the floydCostsA
 	 */
@@ -94,7 +360,7 @@ public class MatrixGraph<T> implements Graph<T> {
 	}
 
 	/**
-	 * Devuelve floydPathsP
+	 * Devuelve floydPathsP. Salvo con STANDARD es null hasta el primer floyd().
 	 * 
 	 * @return the floydPathsP
 	 */
@@ -102,20 +368,220 @@ public class MatrixGraph<T> implements Graph<T> {
 		return floydPathsP;
 	}
 
+	/**
+	 * Devuelve el motor de Dijkstra que usa el grafo por defecto
+	 * 
+	 * @return the dijkstraMode
+	 */
+	public DijkstraMode getDijkstraMode() {
+		return dijkstraMode;
+	}
+
+	/**
+	 * Establece el motor de Dijkstra que usa el grafo por defecto
+	 * 
+	 * @param dijkstraMode motor de Dijkstra
+	 */
+	public void setDijkstraMode(DijkstraMode dijkstraMode) {
+		if (dijkstraMode == null) {
+			throw new NullPointerException("dijkstraMode no puede ser null");
+		}
+		this.dijkstraMode = dijkstraMode;
+	}
+
+	/**
+	 * Devuelve el numero de modificaciones del grafo. Cambia cada vez que se
+	 * añade o elimina un nodo o una arista o se cambia un peso.
+	 * 
+	 * @return the modificationCount
+	 */
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Devuelve el numero de origenes que guarda la cache de Dijkstra
+	 * 
+	 * @return capacidad de la cache
+	 */
+	public int getDijkstraCacheCapacity() {
+		return dijkstraCache.getCapacity();
+	}
+
+	/**
+	 * Establece el numero de origenes que guarda la cache de Dijkstra que usa
+	 * minimumCostPathDijkstra. Cuando se llena se descarta el menos usado.
+	 * 
+	 * @param capacity capacidad, 0 para desactivar la cache
+	 */
+	public void setDijkstraCacheCapacity(int capacity) {
+		dijkstraCache.setCapacity(capacity);
+	}
+
+	/**
+	 * Devuelve el numero de consultas de minimumCostPathDijkstra resueltas desde la
+	 * cache
+	 * 
+	 * @return aciertos de la cache
+	 */
+	public long getDijkstraCacheHits() {
+		return dijkstraCache.getHits();
+	}
+
+	/**
+	 * Devuelve el numero de consultas de minimumCostPathDijkstra que tuvieron que
+	 * ejecutar Dijkstra
+	 * 
+	 * @return fallos de la cache
+	 */
+	public long getDijkstraCacheMisses() {
+		return dijkstraCache.getMisses();
+	}
+
+	/**
+	 * Devuelve la forma de calcular Floyd
+	 * 
+	 * @return the floydMode
+	 */
+	public FloydMode getFloydMode() {
+		return floydMode;
+	}
+
+	/**
+	 * Establece la forma de calcular Floyd
+	 * 
+	 * @param floydMode forma de calcular Floyd
+	 */
+	public void setFloydMode(FloydMode floydMode) {
+		if (floydMode == null) {
+			throw new NullPointerException("floydMode no puede ser null");
+		}
+		this.floydMode = floydMode;
+	}
+
+	/**
+	 * Devuelve el lado de los bloques del Floyd por bloques
+	 * 
+	 * @return the floydTileSize
+	 */
+	public int getFloydTileSize() {
+		return floydTileSize;
+	}
+
+	/**
+	 * Establece el lado de los bloques del Floyd por bloques
+	 * 
+	 * @param floydTileSize lado de cada bloque
+	 */
+	public void setFloydTileSize(int floydTileSize) {
+		if (floydTileSize <= 0) {
+			throw new IllegalArgumentException("floydTileSize no puede ser <= 0");
+		}
+		this.floydTileSize = floydTileSize;
+	}
+
+	/**
+	 * Devuelve el numero maximo de aristas añadidas o abaratadas que se aplican
+	 * de forma incremental sobre Floyd antes de recalcularlo entero
+	 * 
+	 * @return the floydUpdateThreshold
+	 */
+	public int getFloydUpdateThreshold() {
+		return floydUpdateThreshold;
+	}
+
+	/**
+	 * Establece el numero maximo de aristas añadidas o abaratadas que se aplican
+	 * de forma incremental sobre Floyd antes de recalcularlo entero. Con 0 se
+	 * recalcula siempre.
+	 * 
+	 * @param floydUpdateThreshold umbral de cambios pendientes
+	 */
+	public void setFloydUpdateThreshold(int floydUpdateThreshold) {
+		if (floydUpdateThreshold < 0) {
+			throw new IllegalArgumentException("floydUpdateThreshold no puede ser < 0");
+		}
+		this.floydUpdateThreshold = floydUpdateThreshold;
+		if (floydPendingCount > floydUpdateThreshold) {
+			invalidateFloyd();
+		}
+	}
+
+	/**
+	 * Devuelve si Floyd mantiene la matriz de siguientes saltos
+	 * 
+	 * @return true si se mantiene
+	 */
+	public boolean isFloydNextHops() {
+		return floydNextHopsEnabled;
+	}
+
+	/**
+	 * Activa o desactiva la matriz de siguientes saltos de Floyd. Con ella
+	 * activada, floyd() y las actualizaciones incrementales guardan para cada par
+	 * i, j el primer nodo tras i en el camino minimo, y floydPathIndexes,
+	 * floydPath y floydPathIterator sacan los caminos en O(longitud del camino).
+	 * Ocupa capacity x capacity enteros mas, que salvo con
+	 * {@link MatrixStorage#STANDARD} no se reservan hasta el siguiente floyd().
+	 * 
+	 * @param enabled true para mantener la matriz
+	 */
+	public void setFloydNextHops(boolean enabled) {
+		if (enabled == isFloydNextHops()) {
+			return;
+		}
+		floydNextHopsEnabled = enabled;
+		if (enabled) {
+			if (storage == MatrixStorage.STANDARD) {
+				floydNextHops = new int[capacity][capacity];
+			}
+			invalidateFloyd(); // la matriz se rellena en el siguiente floyd()
+		} else {
+			floydNextHops = null;
+		}
+	}
+
+	/**
+	 * Devuelve la matriz de siguientes saltos, o null si no se mantiene o aun no
+	 * se ha reservado
+	 * 
+	 * @return the floydNextHops
+	 */
+	public int[][] getFloydNextHops() {
+		return floydNextHops;
+	}
+
+	/**
+	 * Devuelve el pool en el que se ejecutan los algoritmos paralelos
+	 * 
+	 * @return the parallelPool
+	 */
+	public ForkJoinPool getParallelPool() {
+		return parallelPool;
+	}
+
+	/**
+	 * Establece el pool en el que se ejecutan los algoritmos paralelos
+	 * 
+	 * @param parallelPool pool
+	 */
+	public void setParallelPool(ForkJoinPool parallelPool) {
+		if (parallelPool == null) {
+			throw new NullPointerException("parallelPool no puede ser null");
+		}
+		this.parallelPool = parallelPool;
+	}
+
 	/**
 	 * Devuelve el indice del nodo pasado como parametro Si no encuentra el nodo,
-	 * devuelve INDEX_NOT_FOUND
+	 * devuelve INDEX_NOT_FOUND. Usa el indice hash, O(1).
 	 * 
 	 * @param element nodo
 	 * @return indice o INDEX_NOT_FOUND
 	 */
 	int getNodeIndex(T element) {
-		for (int i = 0; i < size; i++) {
-			if (nodes[i].equals(element)) {
-				return i;
-			}
-		}
-		return INDEX_NOT_FOUND;
+		Integer index = nodeIndexes.get(element);
+		return index == null ? INDEX_NOT_FOUND : index;
 	}
 
 	/**
@@ -168,7 +634,7 @@ public class MatrixGraph<T> implements Graph<T> {
 		if (destinationIndex == INDEX_NOT_FOUND) {
 			return false;
 		}
-		return edges[originIndex][destinationIndex];
+		return edgeRows.get(originIndex, destinationIndex);
 	}
 
 	/**
@@ -183,10 +649,127 @@ public class MatrixGraph<T> implements Graph<T> {
 		checkNull(destinationElement);
 		int originIndex = getValidNodeIndex(originElement);
 		int destinationIndex = getValidNodeIndex(destinationElement);
-		if (!edges[originIndex][destinationIndex]) {
+		if (!edgeRows.get(originIndex, destinationIndex)) {
+			return WEIGHT_NOT_FOUND;
+		}
+		return weights.get(originIndex, destinationIndex);
+	}
+
+	/**
+	 * Devuelve el handle de un nodo. A diferencia del indice, el handle no cambia
+	 * mientras el nodo este en el grafo; al eliminarlo queda libre y se reutiliza
+	 * para el siguiente nodo que se añada.
+	 * <p>
+	 * Los nodos se siguen guardando compactados (removeNode mueve el ultimo al
+	 * hueco) y cada handle se traduce a su indice actual con una tabla. Las
+	 * operaciones de aristas por handle se ahorran la busqueda en la tabla hash y
+	 * las comprobaciones de null, pero no la traduccion.
+	 * 
+	 * @param element nodo
+	 * @return handle o NO_HANDLE si el nodo no existe
+	 */
+	public int handleOf(T element) {
+		checkNull(element);
+		int index = getNodeIndex(element);
+		return index == INDEX_NOT_FOUND ? NO_HANDLE : indexHandles[index];
+	}
+
+	/**
+	 * Devuelve el nodo de un handle
+	 * 
+	 * @param handle handle
+	 * @return nodo
+	 */
+	public T elementOf(int handle) {
+		return nodes[getValidHandleIndex(handle)];
+	}
+
+	/**
+	 * Devuelve el numero de handles repartidos; todos los handles son menores.
+	 * 
+	 * @return limite superior de los handles
+	 */
+	public int getHandleBound() {
+		return handleCount;
+	}
+
+	/**
+	 * Devuelve el indice actual del nodo de un handle. Si el handle no esta en uso
+	 * se lanza excepcion.
+	 * 
+	 * @param handle handle
+	 * @return indice
+	 */
+	private int getValidHandleIndex(int handle) {
+		if (handle < 0 || handle >= handleCount || handleIndexes[handle] == NO_HANDLE) {
+			throw new ElementNotPresentException();
+		}
+		return handleIndexes[handle];
+	}
+
+	/**
+	 * Añade una arista entre los nodos de dos handles.
+	 * 
+	 * @param origin      handle del nodo origen
+	 * @param destination handle del nodo destino
+	 * @param weight      peso
+	 * @return true si se puede añadir, false en caso contrario
+	 */
+	public boolean addEdgeByHandle(int origin, int destination, double weight) {
+		return addEdgeAt(getValidHandleIndex(origin), getValidHandleIndex(destination), weight);
+	}
+
+	/**
+	 * Comprueba que exista una arista entre los nodos de dos handles.
+	 * 
+	 * @param origin      handle del nodo origen
+	 * @param destination handle del nodo destino
+	 * @return true si existe, false en caso contrario
+	 */
+	public boolean existsEdgeByHandle(int origin, int destination) {
+		return edgeRows.get(getValidHandleIndex(origin), getValidHandleIndex(destination));
+	}
+
+	/**
+	 * Devuelve el peso entre los nodos de dos handles.
+	 * 
+	 * @param origin      handle del nodo origen
+	 * @param destination handle del nodo destino
+	 * @return peso entre dos nodos en caso de que haya, sino WEIGHT_NOT_FOUND
+	 */
+	public double getWeightByHandle(int origin, int destination) {
+		int originIndex = getValidHandleIndex(origin);
+		int destinationIndex = getValidHandleIndex(destination);
+		if (!edgeRows.get(originIndex, destinationIndex)) {
 			return WEIGHT_NOT_FOUND;
 		}
-		return weights[originIndex][destinationIndex];
+		return weights.get(originIndex, destinationIndex);
+	}
+
+	/**
+	 * Ejecuta Dijkstra desde el nodo de un handle con el motor configurado. Los
+	 * vectores del resultado van indexados por handle (de 0 a getHandleBound()) y
+	 * los predecesores tambien son handles; los handles libres quedan a infinito.
+	 * <p>
+	 * No es mas rapido que {@link #dijkstra(Object)}: ejecuta el mismo Dijkstra
+	 * por indices y despues copia el resultado a otro DijkstraDataClass
+	 * traduciendo cada indice a su handle, O(V) mas. Sirve cuando quien lo llama
+	 * trabaja con handles, no para ahorrar tiempo.
+	 * 
+	 * @param origin handle del nodo origen
+	 * @return DijkstraDataClass dijkstra
+	 */
+	public DijkstraDataClass dijkstraByHandle(int origin) {
+		int index = getValidHandleIndex(origin);
+		DijkstraDataClass byIndex = runDijkstra(index, dijkstraMode);
+		DijkstraDataClass byHandle = new DijkstraDataClass(handleCount, origin);
+		for (int i = 0; i < size; i++) {
+			int predecessor = byIndex.getDijkstraPathsPValue(i);
+			byHandle.updateDijkstraCostsD(indexHandles[i], byIndex.getDijkstraCostsDValue(i));
+			byHandle.updateDijkstraPathsP(indexHandles[i],
+					predecessor == NO_PREDECESSOR ? NO_PREDECESSOR : indexHandles[predecessor]);
+		}
+		return byHandle;
 	}
 
 	/**
@@ -197,10 +780,11 @@ public class MatrixGraph<T> implements Graph<T> {
 	 */
 	private int getValidNodeIndex(T element) {
 		checkNull(element);
-		if (getNodeIndex(element) == INDEX_NOT_FOUND) {
+		int index = getNodeIndex(element);
+		if (index == INDEX_NOT_FOUND) {
 			throw new ElementNotPresentException();
 		}
-		return getNodeIndex(element);
+		return index;
 	}
 
 	/**
@@ -215,48 +799,279 @@ public class MatrixGraph<T> implements Graph<T> {
 		if (existsNode(element)) {
 			return false;
 		}
+		ensureCapacity(size + 1);
 		int insertPosition = size;
 		nodes[insertPosition] = element;
+		nodeIndexes.put(element, insertPosition);
+		int handle = freeHandleCount > 0 ? freeHandles[--freeHandleCount] : handleCount++;
+		handleIndexes[handle] = insertPosition;
+		indexHandles[insertPosition] = handle;
 		for (int i = 0; i < size; i++) {
-			edges[insertPosition][i] = false;
-			edges[i][insertPosition] = false;
-			weights[insertPosition][i] = 0.0;
-			weights[i][insertPosition] = 0.0;
+			putEdge(insertPosition, i, false);
+			putEdge(i, insertPosition, false);
+			weights.set(insertPosition, i, 0.0);
+			weights.set(i, insertPosition, 0.0);
 		}
+		putEdge(insertPosition, insertPosition, false);
+		outDegrees[insertPosition] = 0;
+		inDegrees[insertPosition] = 0;
+		weights.set(insertPosition, insertPosition, 0.0);
 		size++;
-		floydCalculated = false;
+		modificationCount++;
+		if (floydCalculated) {
+			addFloydNode(insertPosition);
+		}
+		addReachabilityNode(insertPosition);
 		return true;
 	}
 
 	/**
-	 * Lanza excepcion si el tamaño es mayor que la capacidad.
+	 * Añade varios nodos de una vez. Primero se validan todos (ninguno puede ser
+	 * null y tienen que caber), asi que si se lanza excepcion el grafo no cambia.
+	 * Los nodos repetidos o que ya estaban se ignoran. Las filas y columnas nuevas
+	 * se limpian por bloques en vez de nodo a nodo.
+	 * 
+	 * @param elements nodos a añadir
+	 * @return numero de nodos añadidos
 	 */
-	private void checkStructureNotFull() {
-		if (size >= capacity) {
+	public int addNodes(Collection<T> elements) {
+		if (elements == null) {
+			throw new NullPointerException("elements no puede ser null");
+		}
+		Set<T> newElements = new LinkedHashSet<T>();
+		for (T element : elements) {
+			checkNull(element);
+			if (!nodeIndexes.containsKey(element)) {
+				newElements.add(element);
+			}
+		}
+		if (newElements.isEmpty()) {
+			return 0;
+		}
+		int oldSize = size;
+		int newSize = oldSize + newElements.size();
+		if (!growable && newSize > capacity) {
 			throw new FullStructureException();
 		}
+		ensureCapacity(newSize);
+
+		for (T element : newElements) {
+			int insertPosition = size++;
+			nodes[insertPosition] = element;
+			nodeIndexes.put(element, insertPosition);
+			int handle = freeHandleCount > 0 ? freeHandles[--freeHandleCount] : handleCount++;
+			handleIndexes[handle] = insertPosition;
+			indexHandles[insertPosition] = handle;
+			outDegrees[insertPosition] = 0;
+			inDegrees[insertPosition] = 0;
+		}
+		for (int row = 0; row < newSize; row++) {
+			int from = row < oldSize ? oldSize : 0; // filas antiguas: solo las columnas nuevas
+			edgeRows.clear(row, from, newSize);
+			edgeColumns.clear(row, from, newSize);
+			weights.clear(row, from, newSize);
+		}
+		modificationCount++;
+		if (floydCalculated) {
+			for (int i = oldSize; i < newSize; i++) {
+				addFloydNode(i);
+			}
+		}
+		for (int i = oldSize; i < newSize; i++) {
+			addReachabilityNode(i);
+		}
+		return newSize - oldSize;
 	}
 
 	/**
-	 * Añade una arista a la matriz de aristas.
+	 * Añade varias aristas de una vez a partir de tres arrays paralelos. Primero se
+	 * validan todas (nodos existentes y pesos mayores que 0), asi que si se lanza
+	 * excepcion el grafo no cambia. Las aristas que ya existen se ignoran, igual
+	 * que en addEdge.
 	 * 
-	 * @param originElement      nodo origen
-	 * @param destinationElement nodo destino
-	 * @param weight             peso
-	 * @return true si se puede añadir, false en caso contrario
+	 * @param origins      nodos origen
+	 * @param destinations nodos destino
+	 * @param edgeWeights  pesos
+	 * @return numero de aristas añadidas
 	 */
-	public boolean addEdge(T originElement, T destinationElement, double weight) {
-		int originIndex = getValidNodeIndex(originElement);
-		int destinationIndex = getValidNodeIndex(destinationElement);
-		if (weight <= 0) {
+	public int addEdges(T[] origins, T[] destinations, double[] edgeWeights) {
+		if (origins == null || destinations == null || edgeWeights == null) {
+			throw new NullPointerException("Los arrays no pueden ser null");
+		}
+		if (origins.length != destinations.length || origins.length != edgeWeights.length) {
+			throw new IllegalArgumentException("Los arrays tienen que tener la misma longitud");
+		}
+		int count = origins.length;
+		int[] originIndexes = new int[count];
+		int[] destinationIndexes = new int[count];
+		for (int i = 0; i < count; i++) {
+			originIndexes[i] = getValidNodeIndex(origins[i]);
+			destinationIndexes[i] = getValidNodeIndex(destinations[i]);
+			checkWeight(edgeWeights[i]);
+		}
+		return writeEdges(originIndexes, destinationIndexes, edgeWeights, count);
+	}
+
+	/**
+	 * Añade varias aristas de una vez a partir de un iterador. Las aristas se
+	 * validan todas antes de escribir ninguna, como en addEdges con arrays.
+	 * 
+	 * @param edgeIterator aristas a añadir
+	 * @return numero de aristas añadidas
+	 */
+	public int addEdges(Iterator<Edge<T>> edgeIterator) {
+		if (edgeIterator == null) {
+			throw new NullPointerException("edgeIterator no puede ser null");
+		}
+		int[] originIndexes = new int[16];
+		int[] destinationIndexes = new int[16];
+		double[] edgeWeights = new double[16];
+		int count = 0;
+		while (edgeIterator.hasNext()) {
+			Edge<T> edge = edgeIterator.next();
+			if (count == originIndexes.length) {
+				originIndexes = Arrays.copyOf(originIndexes, count * 2);
+				destinationIndexes = Arrays.copyOf(destinationIndexes, count * 2);
+				edgeWeights = Arrays.copyOf(edgeWeights, count * 2);
+			}
+			originIndexes[count] = getValidNodeIndex(edge.getOrigin());
+			destinationIndexes[count] = getValidNodeIndex(edge.getDestination());
+			edgeWeights[count] = checkWeight(edge.getWeight());
+			count++;
+		}
+		return writeEdges(originIndexes, destinationIndexes, edgeWeights, count);
+	}
+
+	/**
+	 * Lanza excepcion si el peso no es valido. Con
+	 * {@link MatrixStorage#LEAN_FLOAT} el peso tiene que quedar ademas positivo y
+	 * finito al pasarlo a float: si no, se guardaria como 0 (una arista gratis) o
+	 * como infinito (una arista que parece no existir).
+	 * 
+	 * @param weight peso
+	 * @return el mismo peso
+	 */
+	double checkWeight(double weight) {
+		if (weight <= 0) {
 			throw new IllegalArgumentException("Weight no puede ser <= 0");
 		}
-		if (existsEdge(originElement, destinationElement)) {
+		if (storage == MatrixStorage.LEAN_FLOAT && ((float) weight == 0 || Float.isInfinite((float) weight))) {
+			throw new IllegalArgumentException("Weight no cabe en un float positivo y finito: " + weight);
+		}
+		return weight;
+	}
+
+	/**
+	 * Escribe aristas ya validadas. La version del grafo cambia una sola vez.
+	 * Los lotes grandes invalidan Floyd y la clausura transitiva una sola vez
+	 * antes de empezar: actualizarlas arista a arista (O(V^2) y O(V^2/64) cada
+	 * una) costaria mas que recalcularlas.
+	 * 
+	 * @param originIndexes      indices origen
+	 * @param destinationIndexes indices destino
+	 * @param edgeWeights        pesos
+	 * @param count              numero de aristas
+	 * @return numero de aristas añadidas
+	 */
+	int writeEdges(int[] originIndexes, int[] destinationIndexes, double[] edgeWeights, int count) {
+		if (floydPendingCount + count > floydUpdateThreshold) {
+			invalidateFloyd();
+		}
+		if (count > size) {
+			reachabilityCalculated = false; // recalcularla es O(V^3/64)
+		}
+		int added = 0;
+		for (int i = 0; i < count; i++) {
+			int origin = originIndexes[i];
+			int destination = destinationIndexes[i];
+			if (edgeRows.get(origin, destination)) {
+				continue;
+			}
+			putEdge(origin, destination, true);
+			outDegrees[origin]++;
+			inDegrees[destination]++;
+			weights.set(origin, destination, edgeWeights[i]);
+			recordFloydDecrease(origin, destination);
+			addReachableEdge(origin, destination);
+			added++;
+		}
+		if (added > 0) {
+			modificationCount++;
+		}
+		return added;
+	}
+
+	/**
+	 * Lanza excepcion si el tamaño es mayor que la capacidad y el grafo no puede
+	 * crecer.
+	 */
+	private void checkStructureNotFull() {
+		if (!growable && size >= capacity) {
+			throw new FullStructureException();
+		}
+	}
+
+	/**
+	 * Añade una arista a la matriz de aristas.
+	 * 
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @param weight             peso
+	 * @return true si se puede añadir, false en caso contrario
+	 */
+	public boolean addEdge(T originElement, T destinationElement, double weight) {
+		int originIndex = getValidNodeIndex(originElement);
+		int destinationIndex = getValidNodeIndex(destinationElement);
+		return addEdgeAt(originIndex, destinationIndex, weight);
+	}
+
+	/**
+	 * Añade una arista entre dos indices validos.
+	 * 
+	 * @param originIndex      indice origen
+	 * @param destinationIndex indice destino
+	 * @param weight           peso
+	 * @return true si se puede añadir, false en caso contrario
+	 */
+	private boolean addEdgeAt(int originIndex, int destinationIndex, double weight) {
+		checkWeight(weight);
+		if (edgeRows.get(originIndex, destinationIndex)) {
 			return false;
 		}
-		edges[originIndex][destinationIndex] = true;
-		weights[originIndex][destinationIndex] = weight;
-		floydCalculated = false;
+		putEdge(originIndex, destinationIndex, true);
+		outDegrees[originIndex]++;
+		inDegrees[destinationIndex]++;
+		weights.set(originIndex, destinationIndex, weight);
+		modificationCount++;
+		recordFloydDecrease(originIndex, destinationIndex);
+		addReachableEdge(originIndex, destinationIndex);
+		return true;
+	}
+
+	/**
+	 * Cambia el peso de una arista existente. Si el peso baja, Floyd se actualiza
+	 * de forma incremental; si sube, se tendra que recalcular.
+	 * 
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @param weight             nuevo peso
+	 * @return true si la arista existe, false en caso contrario
+	 */
+	public boolean updateWeight(T originElement, T destinationElement, double weight) {
+		int originIndex = getValidNodeIndex(originElement);
+		int destinationIndex = getValidNodeIndex(destinationElement);
+		checkWeight(weight);
+		if (!edgeRows.get(originIndex, destinationIndex)) {
+			return false;
+		}
+		double oldWeight = weights.get(originIndex, destinationIndex);
+		weights.set(originIndex, destinationIndex, weight);
+		modificationCount++;
+		if (weight < oldWeight) {
+			recordFloydDecrease(originIndex, destinationIndex);
+		} else if (weight > oldWeight) {
+			invalidateFloyd();
+		}
 		return true;
 	}
 
@@ -270,12 +1085,16 @@ public class MatrixGraph<T> implements Graph<T> {
 	public boolean removeEdge(T originElement, T destinationElement) {
 		int originIndex = getValidNodeIndex(originElement);
 		int destinationIndex = getValidNodeIndex(destinationElement);
-		if (!existsEdge(originElement, destinationElement)) {
+		if (!edgeRows.get(originIndex, destinationIndex)) {
 			return false;
 		}
-		edges[originIndex][destinationIndex] = false;
-		weights[originIndex][destinationIndex] = 0.0;
-		floydCalculated = false;
+		putEdge(originIndex, destinationIndex, false);
+		outDegrees[originIndex]--;
+		inDegrees[destinationIndex]--;
+		weights.set(originIndex, destinationIndex, 0.0);
+		modificationCount++;
+		invalidateFloyd();
+		reachabilityCalculated = false;
 		return true;
 	}
 
@@ -291,20 +1110,38 @@ public class MatrixGraph<T> implements Graph<T> {
 		if (pos < 0) {
 			return false;
 		}
+		// Las aristas del nodo eliminado dejan de contar en sus vecinos
+		for (int i = edgeRows.nextSetBit(pos, 0); i >= 0 && i < size; i = edgeRows.nextSetBit(pos, i + 1)) {
+			inDegrees[i]--;
+		}
+		for (int i = edgeColumns.nextSetBit(pos, 0); i >= 0 && i < size; i = edgeColumns.nextSetBit(pos, i + 1)) {
+			outDegrees[i]--;
+		}
 		size--;
+		modificationCount++;
+		invalidateFloyd();
+		reachabilityCalculated = false;
+		nodeIndexes.remove(element);
+		int handle = indexHandles[pos];
+		handleIndexes[handle] = NO_HANDLE;
+		freeHandles[freeHandleCount++] = handle;
 		if (pos == size) {
 			return true;
 		}
 		nodes[pos] = nodes[size];
+		nodeIndexes.put(nodes[pos], pos);
+		indexHandles[pos] = indexHandles[size];
+		handleIndexes[indexHandles[pos]] = pos;
+		outDegrees[pos] = outDegrees[size];
+		inDegrees[pos] = inDegrees[size];
 		for (int i = 0; i < size; i++) {
-			edges[i][pos] = edges[i][size];
-			edges[pos][i] = edges[size][i];
-			weights[i][pos] = weights[i][size];
-			weights[pos][i] = weights[size][i];
+			putEdge(i, pos, edgeRows.get(i, size));
+			putEdge(pos, i, edgeRows.get(size, i));
+			weights.set(i, pos, weights.get(i, size));
+			weights.set(pos, i, weights.get(size, i));
 		}
-		edges[pos][pos] = edges[size][size];
-		weights[pos][pos] = weights[size][size];
-		floydCalculated = false;
+		putEdge(pos, pos, edgeRows.get(size, size));
+		weights.set(pos, pos, weights.get(size, size));
 
 		return true;
 	}
@@ -330,12 +1167,7 @@ public class MatrixGraph<T> implements Graph<T> {
 	 * @return true si tiene al menos una arista saliente, false en caso contrario
 	 */
 	private boolean hasOutEdge(int index) {
-		for (int i = 0; i < size; i++) {
-			if (edges[index][i]) {
-				return true;
-			}
-		}
-		return false;
+		return outDegrees[index] > 0;
 	}
 
 	/**
@@ -345,12 +1177,39 @@ public class MatrixGraph<T> implements Graph<T> {
 	 * @return true si tiene al menos una arista entrante, false en caso contrario
 	 */
 	private boolean hasInEdge(int index) {
-		for (int i = 0; i < size; i++) {
-			if (edges[i][index]) {
-				return true;
-			}
-		}
-		return false;
+		return inDegrees[index] > 0;
+	}
+
+	/**
+	 * Devuelve el numero de aristas que salen de un nodo
+	 * 
+	 * @param element nodo
+	 * @return grado de salida
+	 */
+	public int getOutDegree(T element) {
+		return outDegrees[getValidNodeIndex(element)];
+	}
+
+	/**
+	 * Devuelve el numero de aristas que llegan a un nodo
+	 * 
+	 * @param element nodo
+	 * @return grado de entrada
+	 */
+	public int getInDegree(T element) {
+		return inDegrees[getValidNodeIndex(element)];
+	}
+
+	/**
+	 * Activa o desactiva una arista en la matriz de filas y en la de columnas
+	 * 
+	 * @param origin      indice origen
+	 * @param destination indice destino
+	 * @param value       true si la arista existe
+	 */
+	private void putEdge(int origin, int destination, boolean value) {
+		edgeRows.put(origin, destination, value);
+		edgeColumns.put(destination, origin, value);
 	}
 
 	/**
@@ -377,6 +1236,32 @@ public class MatrixGraph<T> implements Graph<T> {
 		return !hasOutEdge(index) && !hasInEdge(index);
 	}
 
+	/**
+	 * Congela el estado actual del grafo en un {@link GraphSnapshot} inmutable
+	 * con las aristas en formato CSR, O(V^2 / 64 + E). El grafo se puede seguir
+	 * modificando; el snapshot no cambia.
+	 * 
+	 * @return snapshot del grafo
+	 */
+	public GraphSnapshot<T> freeze() {
+		int[] offsets = new int[size + 1];
+		for (int i = 0; i < size; i++) {
+			offsets[i + 1] = offsets[i] + outDegrees[i];
+		}
+		int[] targets = new int[offsets[size]];
+		double[] edgeWeights = new double[offsets[size]];
+		for (int row = 0; row < size; row++) {
+			int position = offsets[row];
+			for (int i = edgeRows.nextSetBit(row, 0); i >= 0 && i < size; i = edgeRows.nextSetBit(row, i + 1)) {
+				targets[position] = i;
+				edgeWeights[position] = weights.get(row, i);
+				position++;
+			}
+		}
+		return new GraphSnapshot<T>(Arrays.copyOf(nodes, size, Object[].class), offsets, targets, edgeWeights,
+				modificationCount);
+	}
+
 	/**
 	 * Returns a string representation of the graph. It includes the nodes and
 	 * adjacency matrices.
@@ -405,7 +1290,7 @@ public class MatrixGraph<T> implements Graph<T> {
 		for (int row = 0; row < size; row++) {
 			result += nodes[row] + "\t"; // Row label
 			for (int columns = 0; columns < size; columns++) {
-				result += edges[row][columns] ? "T\t" : "F\t";
+				result += edgeRows.get(row, columns) ? "T\t" : "F\t";
 			}
 			result += "\n";
 		}
@@ -422,7 +1307,7 @@ public class MatrixGraph<T> implements Graph<T> {
 		for (int row = 0; row < size; row++) {
 			result += nodes[row] + "\t"; // Row label
 			for (int column = 0; column < size; column++) {
-				result += (edges[row][column] ? df.format(weights[row][column]) : "-") + "\t";
+				result += (edgeRows.get(row, column) ? df.format(weights.get(row, column)) : "-") + "\t";
 			}
 			result += "\n";
 		}
@@ -431,14 +1316,128 @@ public class MatrixGraph<T> implements Graph<T> {
 	}
 
 	/**
-	 * Ejecuta el algoritmo de Dijkstra desde un nodo origen.
+	 * Ejecuta el algoritmo de Dijkstra desde un nodo origen con el motor
+	 * configurado en el grafo.
 	 * 
 	 * @param startingElement nodo origen
 	 * @return DijkstraDataClass dijkstra
 	 */
 	public DijkstraDataClass dijkstra(T startingElement) {
+		return dijkstra(startingElement, dijkstraMode);
+	}
+
+	/**
+	 * Ejecuta el algoritmo de Dijkstra desde un nodo origen con el motor indicado.
+	 * Ambos motores devuelven los mismos costes y caminos.
+	 * 
+	 * @param startingElement nodo origen
+	 * @param mode            motor de Dijkstra
+	 * @return DijkstraDataClass dijkstra
+	 */
+	public DijkstraDataClass dijkstra(T startingElement, DijkstraMode mode) {
 		int index = getValidNodeIndex(startingElement);
-		DijkstraDataClass dijkstra = new DijkstraDataClass(size, getWeights(), index);
+		if (mode == null) {
+			throw new NullPointerException("mode no puede ser null");
+		}
+		return runDijkstra(index, mode);
+	}
+
+	/**
+	 * Ejecuta Dijkstra desde un indice con el motor indicado. Solo lee el grafo,
+	 * asi que se puede llamar desde varios hilos mientras nadie lo modifique.
+	 * 
+	 * @param index indice del nodo origen
+	 * @param mode  motor de Dijkstra
+	 * @return DijkstraDataClass dijkstra
+	 */
+	private DijkstraDataClass runDijkstra(int index, DijkstraMode mode) {
+		if (mode == DijkstraMode.BINARY_HEAP) {
+			return HeapDijkstra.run(indexedView, index);
+		}
+		return linearScanDijkstra(index);
+	}
+
+	/**
+	 * Caminos minimos desde un origen con delta-stepping en paralelo sobre el pool
+	 * del grafo (getParallelPool). Los costes son los mismos que los de dijkstra;
+	 * si hay varios caminos minimos el predecesor puede ser otro. Un delta cercano
+	 * al peso medio de las aristas suele ir bien: con delta muy pequeño se parece
+	 * a Dijkstra y con delta muy grande a Bellman-Ford.
+	 * 
+	 * @param startingElement nodo origen
+	 * @param delta           anchura de los cubos, mayor que 0
+	 * @return DijkstraDataClass dijkstra
+	 */
+	public DijkstraDataClass deltaStepping(T startingElement, double delta) {
+		int index = getValidNodeIndex(startingElement);
+		return DeltaStepping.run(indexedView, index, delta, parallelPool);
+	}
+
+	/**
+	 * Ejecuta Dijkstra desde varios origenes en paralelo sobre el pool del grafo
+	 * (getParallelPool), con el motor configurado. Cada busqueda solo lee el
+	 * grafo, por lo que el grafo no debe modificarse mientras dura el lote; si
+	 * cambia, se lanza ConcurrentModificationException.
+	 * 
+	 * @param origins nodos origen
+	 * @return resultado de cada origen, en el orden en que aparecen
+	 */
+	public Map<T, DijkstraDataClass> dijkstraBatch(Collection<T> origins) {
+		if (origins == null) {
+			throw new NullPointerException("origins no puede ser null");
+		}
+		Map<T, Integer> originIndexes = new LinkedHashMap<T, Integer>();
+		for (T origin : origins) {
+			originIndexes.put(origin, getValidNodeIndex(origin));
+		}
+		int[] indexes = new int[originIndexes.size()];
+		int position = 0;
+		for (int index : originIndexes.values()) {
+			indexes[position++] = index;
+		}
+
+		long expectedModificationCount = modificationCount;
+		DijkstraMode mode = dijkstraMode;
+		DijkstraDataClass[] results = ParallelDijkstra.run(index -> runDijkstra(index, mode), indexes,
+				parallelPool);
+		if (modificationCount != expectedModificationCount) {
+			throw new ConcurrentModificationException();
+		}
+
+		Map<T, DijkstraDataClass> batch = new LinkedHashMap<T, DijkstraDataClass>();
+		position = 0;
+		for (T origin : originIndexes.keySet()) {
+			batch.put(origin, results[position++]);
+		}
+		return batch;
+	}
+
+	/**
+	 * Ejecuta Dijkstra con monticulo desde un nodo origen dejando el resultado en
+	 * un workspace reutilizable. Una vez que el workspace tiene el tamaño del
+	 * grafo, las consultas no reservan memoria.
+	 * 
+	 * @param startingElement nodo origen
+	 * @param workspace       workspace donde se escribe el resultado
+	 * @return el mismo workspace
+	 */
+	public DijkstraWorkspace dijkstraInto(T startingElement, DijkstraWorkspace workspace) {
+		int index = getValidNodeIndex(startingElement);
+		if (workspace == null) {
+			throw new NullPointerException("workspace no puede ser null");
+		}
+		workspace.run(indexedView, index);
+		return workspace;
+	}
+
+	/**
+	 * Dijkstra clasico: el pivote se busca recorriendo el vector de costes.
+	 * 
+	 * @param index indice del nodo origen
+	 * @return DijkstraDataClass dijkstra
+	 */
+	private DijkstraDataClass linearScanDijkstra(int index) {
+		DijkstraDataClass dijkstra = new DijkstraDataClass(size, index);
 		boolean[] visitedPivotsS = new boolean[size];
 
 		int pivot = index;
@@ -447,9 +1446,9 @@ public class MatrixGraph<T> implements Graph<T> {
 			visitedPivotsS[pivot] = true;
 			double originToPivotCost = dijkstra.getDijkstraCostsDValue(pivot);
 
-			for (int i = 0; i < size; i++) {
-				if (weights[pivot][i] > 0 && !visitedPivotsS[i]) {
-					double pivotToTargetCost = weights[pivot][i];
+			for (int i = edgeRows.nextSetBit(pivot, 0); i >= 0 && i < size; i = edgeRows.nextSetBit(pivot, i + 1)) {
+				if (!visitedPivotsS[i]) {
+					double pivotToTargetCost = weights.get(pivot, i);
 					double newOriginToTargetCost = originToPivotCost + pivotToTargetCost;
 					double currentCost = dijkstra.getDijkstraCostsDValue(i);
 
@@ -465,19 +1464,91 @@ public class MatrixGraph<T> implements Graph<T> {
 	}
 
 	/**
-	 * Devuelve el coste mínimo entre dos nodos usando Dijkstra.
+	 * Devuelve el coste mínimo entre dos nodos usando Dijkstra. Los resultados se
+	 * guardan por origen, asi que las consultas repetidas desde el mismo origen
+	 * sin cambios en el grafo son O(1).
 	 * 
 	 * @param origin      nodo origen
 	 * @param destination nodo destino
 	 * @return coste mínimo del camino
 	 */
 	public double minimumCostPathDijkstra(T origin, T destination) {
-		getValidNodeIndex(origin);
+		int originIndex = getValidNodeIndex(origin);
 		int destIndex = getValidNodeIndex(destination);
-		DijkstraDataClass dijkstra = dijkstra(origin);
+		DijkstraDataClass dijkstra = dijkstraCache.get(originIndex, modificationCount);
+		if (dijkstra == null) {
+			dijkstra = dijkstra(origin);
+			dijkstraCache.put(originIndex, modificationCount, dijkstra);
+		}
 		return dijkstra.getDijkstraCostsDValue(destIndex);
 	}
 
+	/**
+	 * Camino minimo entre dos nodos con Dijkstra sobre monticulo que para en
+	 * cuanto el destino pasa a ser pivote, sin asentar el resto del grafo.
+	 * 
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @return coste, camino y nodos expandidos
+	 */
+	public PathResult<T> pointToPointDijkstra(T origin, T destination) {
+		int originIndex = getValidNodeIndex(origin);
+		int destIndex = getValidNodeIndex(destination);
+		return toPathResult(origin, destination, ShortestPathSearch.dijkstra(indexedView, originIndex, destIndex));
+	}
+
+	/**
+	 * Camino minimo entre dos nodos con Dijkstra bidireccional: avanza desde el
+	 * origen por las aristas salientes y desde el destino por las entrantes hasta
+	 * que ambas busquedas se encuentran.
+	 * 
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @return coste, camino y nodos expandidos
+	 */
+	public PathResult<T> bidirectionalDijkstra(T origin, T destination) {
+		int originIndex = getValidNodeIndex(origin);
+		int destIndex = getValidNodeIndex(destination);
+		return toPathResult(origin, destination,
+				ShortestPathSearch.bidirectional(indexedView, reversedView, originIndex, destIndex));
+	}
+
+	/**
+	 * Camino minimo entre dos nodos con A*. La heuristica recibe un nodo y el
+	 * destino y estima el coste restante; debe ser admisible (no sobreestimar
+	 * nunca) para que el coste devuelto sea el minimo.
+	 * 
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @param heuristic   estimacion del coste entre un nodo y el destino
+	 * @return coste, camino y nodos expandidos
+	 */
+	public PathResult<T> aStar(T origin, T destination, ToDoubleBiFunction<T, T> heuristic) {
+		int originIndex = getValidNodeIndex(origin);
+		int destIndex = getValidNodeIndex(destination);
+		if (heuristic == null) {
+			throw new NullPointerException("heuristic no puede ser null");
+		}
+		return toPathResult(origin, destination, ShortestPathSearch.aStar(indexedView, originIndex, destIndex,
+				index -> heuristic.applyAsDouble(nodes[index], destination)));
+	}
+
+	/**
+	 * Traduce un camino de indices a un PathResult con los elementos
+	 * 
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @param indexPath   camino de indices
+	 * @return PathResult
+	 */
+	private PathResult<T> toPathResult(T origin, T destination, ShortestPathSearch.IndexPath indexPath) {
+		List<T> path = new ArrayList<T>(indexPath.path.length);
+		for (int index : indexPath.path) {
+			path.add(nodes[index]);
+		}
+		return new PathResult<T>(origin, destination, indexPath.cost, path, indexPath.expandedNodes);
+	}
+
 	/**
 	 * Realiza un recorrido en profundidad desde un nodo.
 	 * 
@@ -485,27 +1556,107 @@ public class MatrixGraph<T> implements Graph<T> {
 	 * @return cadena con el recorrido
 	 */
 	public String printDepthFirstTraversal(T origin) {
-		int index = getValidNodeIndex(origin);
-		boolean[] visitedNodes = new boolean[size];
-		return printDepthFirstTraversalRecursive(index, visitedNodes);
+		StringBuilder path = new StringBuilder();
+		for (Iterator<T> iterator = depthFirstIterator(origin); iterator.hasNext();) {
+			path.append(iterator.next().toString()).append('-');
+		}
+		return path.toString();
 	}
 
 	/**
-	 * Realiza un recorrido en profundidad desde un nodo de forma recursiva.
+	 * Escribe el recorrido en profundidad desde un nodo, con el mismo formato que
+	 * printDepthFirstTraversal, sin construir la cadena completa en memoria.
 	 * 
-	 * @param index        indice
-	 * @param visitedNodes nodos visitados
-	 * @return cadena con el recorrido
+	 * @param origin nodo origen
+	 * @param out    destino de la salida
+	 * @throws IOException si falla la escritura
 	 */
-	private String printDepthFirstTraversalRecursive(int index, boolean[] visitedNodes) {
-		String path = nodes[index].toString() + "-";
-		visitedNodes[index] = true;
-		for (int i = 0; i < size; i++) {
-			if (edges[index][i] && !visitedNodes[i]) {
-				path += printDepthFirstTraversalRecursive(i, visitedNodes);
-			}
+	public void writeDepthFirstTraversal(T origin, Appendable out) throws IOException {
+		writeTraversal(depthFirstIterator(origin), out);
+	}
+
+	/**
+	 * Escribe el recorrido en anchura desde un nodo, con el mismo formato que
+	 * printDepthFirstTraversal.
+	 * 
+	 * @param origin nodo origen
+	 * @param out    destino de la salida
+	 * @throws IOException si falla la escritura
+	 */
+	public void writeBreadthFirstTraversal(T origin, Appendable out) throws IOException {
+		writeTraversal(breadthFirstIterator(origin), out);
+	}
+
+	/**
+	 * Escribe los nodos de un recorrido separados por guiones
+	 * 
+	 * @param iterator recorrido
+	 * @param out      destino de la salida
+	 * @throws IOException si falla la escritura
+	 */
+	private void writeTraversal(Iterator<T> iterator, Appendable out) throws IOException {
+		if (out == null) {
+			throw new NullPointerException("out no puede ser null");
 		}
-		return path;
+		while (iterator.hasNext()) {
+			out.append(iterator.next().toString()).append('-');
+		}
+	}
+
+	/**
+	 * Devuelve un iterador perezoso que recorre en profundidad los nodos
+	 * alcanzables desde el origen, en el mismo orden que printDepthFirstTraversal.
+	 * Usa una pila explicita, asi que no depende de la profundidad del grafo. Si el
+	 * grafo cambia durante el recorrido, next lanza
+	 * ConcurrentModificationException.
+	 * 
+	 * @param origin nodo origen
+	 * @return iterador del recorrido
+	 */
+	public Iterator<T> depthFirstIterator(T origin) {
+		return new DepthFirstIterator(getValidNodeIndex(origin));
+	}
+
+	/**
+	 * Devuelve un iterador perezoso que recorre en anchura los nodos alcanzables
+	 * desde el origen. Los vecinos se visitan por orden de indice.
+	 * 
+	 * @param origin nodo origen
+	 * @return iterador del recorrido
+	 */
+	public Iterator<T> breadthFirstIterator(T origin) {
+		return new BreadthFirstIterator(getValidNodeIndex(origin));
+	}
+
+	/**
+	 * Devuelve el recorrido en profundidad como un Stream secuencial y perezoso
+	 * 
+	 * @param origin nodo origen
+	 * @return stream del recorrido
+	 */
+	public Stream<T> depthFirstStream(T origin) {
+		return toStream(depthFirstIterator(origin));
+	}
+
+	/**
+	 * Devuelve el recorrido en anchura como un Stream secuencial y perezoso
+	 * 
+	 * @param origin nodo origen
+	 * @return stream del recorrido
+	 */
+	public Stream<T> breadthFirstStream(T origin) {
+		return toStream(breadthFirstIterator(origin));
+	}
+
+	/**
+	 * Convierte un recorrido en un Stream
+	 * 
+	 * @param iterator recorrido
+	 * @return stream
+	 */
+	private Stream<T> toStream(Iterator<T> iterator) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+				Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
 	}
 
 	/**
@@ -516,25 +1667,117 @@ public class MatrixGraph<T> implements Graph<T> {
 			for (int col = 0; col < size; col++) {
 				if (row == col) {
 					floydCostsA[row][col] = 0;
-				} else if (!edges[row][col]) {
+				} else if (!edgeRows.get(row, col)) {
 					floydCostsA[row][col] = INFINITY;
 				} else {
-					floydCostsA[row][col] = weights[row][col];
+					floydCostsA[row][col] = weights.get(row, col);
 				}
 				floydPathsP[row][col] = EMPTY;
 			}
 		}
+		if (floydNextHops != null) {
+			for (int row = 0; row < size; row++) {
+				for (int col = 0; col < size; col++) {
+					boolean reachable = row == col || edgeRows.get(row, col);
+					floydNextHops[row][col] = reachable ? col : NO_NEXT_HOP;
+				}
+			}
+		}
 	}
 
 	/**
-	 * Ejecuta el algoritmo de Floyd.
+	 * Ejecuta el algoritmo de Floyd con la forma configurada en el grafo.
 	 * 
 	 * @return true si se ejecuto correctamente, false si el grafo esta vacio
 	 */
 	public boolean floyd() {
 		if (size == 0)
 			return false;
-		initializeFloydMatrices();
+		if (floydCostsA == null) {
+			floydCostsA = new double[capacity][capacity];
+			floydPathsP = new int[capacity][capacity];
+		}
+		if (floydNextHopsEnabled && floydNextHops == null) {
+			floydNextHops = new int[capacity][capacity];
+		}
+		if (floydMode == FloydMode.JOHNSON) {
+			// Rellena todas las celdas, no necesita inicializar las matrices
+			JohnsonAllPairs.run(indexedView, floydCostsA, floydPathsP, floydNextHops, parallelPool);
+		} else {
+			initializeFloydMatrices();
+			if (floydMode == FloydMode.BLOCKED_PARALLEL) {
+				BlockedFloyd.run(floydCostsA, floydPathsP, floydNextHops, size, floydTileSize, parallelPool);
+			} else {
+				sequentialFloyd();
+			}
+		}
+		floydCalculated = true;
+		floydPendingCount = 0;
+		return true;
+	}
+
+	/**
+	 * Calcula un CRC32 de la estructura del grafo: numero de nodos, hashCode de
+	 * cada nodo en orden de indice y cada arista con su peso, O(V^2 / 64 + E).
+	 * Si el hashCode de T no es estable entre ejecuciones (el de Object), la suma
+	 * cambia en cada proceso y los resultados guardados nunca se reutilizan.
+	 * 
+	 * @return suma de control
+	 */
+	long structureChecksum() {
+		CRC32 checksum = new CRC32();
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+		buffer.putInt(size);
+		for (int i = 0; i < size; i++) {
+			if (buffer.remaining() < Integer.BYTES) {
+				updateChecksum(checksum, buffer);
+			}
+			buffer.putInt(nodes[i].hashCode());
+		}
+		for (int row = 0; row < size; row++) {
+			for (int i = edgeRows.nextSetBit(row, 0); i >= 0 && i < size; i = edgeRows.nextSetBit(row, i + 1)) {
+				if (buffer.remaining() < 2 * Integer.BYTES + Long.BYTES) {
+					updateChecksum(checksum, buffer);
+				}
+				buffer.putInt(row).putInt(i).putLong(Double.doubleToLongBits(weights.get(row, i)));
+			}
+		}
+		updateChecksum(checksum, buffer);
+		return checksum.getValue();
+	}
+
+	/**
+	 * Pasa el contenido del buffer a la suma de control y lo vacia
+	 * 
+	 * @param checksum suma de control
+	 * @param buffer   buffer
+	 */
+	private static void updateChecksum(CRC32 checksum, ByteBuffer buffer) {
+		buffer.flip();
+		checksum.update(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Instala unas matrices de Floyd ya calculadas para el grafo actual, por
+	 * ejemplo leidas de un fichero. Tienen que ser capacity x capacity. Si se
+	 * mantienen los siguientes saltos, Floyd queda sin calcular porque esos no se
+	 * guardan.
+	 * 
+	 * @param costs matriz A de costes
+	 * @param paths matriz P de caminos
+	 */
+	void restoreFloyd(double[][] costs, int[][] paths) {
+		floydCostsA = costs;
+		floydPathsP = paths;
+		floydCalculated = !floydNextHopsEnabled;
+		floydPendingCount = 0;
+	}
+
+	/**
+	 * Triple bucle clasico de Floyd sobre las matrices ya inicializadas.
+	 */
+	private void sequentialFloyd() {
 		for (int pivot = 0; pivot < size; pivot++) {
 			for (int origin = 0; origin < size; origin++) {
 				for (int destination = 0; destination < size; destination++) {
@@ -545,12 +1788,217 @@ public class MatrixGraph<T> implements Graph<T> {
 					if (newCost < originDestination) {
 						floydCostsA[origin][destination] = newCost;
 						floydPathsP[origin][destination] = pivot;
+						if (floydNextHops != null) {
+							floydNextHops[origin][destination] = floydNextHops[origin][pivot];
+						}
 					}
 				}
 			}
 		}
-		floydCalculated = true;
-		return true;
+	}
+
+	/**
+	 * Deja las matrices de Floyd al dia: aplica los cambios pendientes o, si
+	 * Floyd no es valido, lo recalcula entero.
+	 */
+	void updateFloyd() {
+		if (!floydCalculated) {
+			floyd();
+			return;
+		}
+		for (int i = 0; i < floydPendingCount; i++) {
+			int origin = floydPendingEdges[2 * i];
+			int destination = floydPendingEdges[2 * i + 1];
+			applyFloydDecrease(origin, destination, weights.get(origin, destination));
+		}
+		floydPendingCount = 0;
+	}
+
+	/**
+	 * Comprueba si las matrices de Floyd estan al dia, es decir, si las consultas
+	 * de Floyd no van a modificarlas.
+	 * 
+	 * @return true si Floyd esta calculado y sin cambios pendientes
+	 */
+	boolean isFloydUpToDate() {
+		return floydCalculated && floydPendingCount == 0;
+	}
+
+	/**
+	 * Marca Floyd como no calculado y descarta los cambios pendientes.
+	 */
+	private void invalidateFloyd() {
+		floydCalculated = false;
+		floydPendingCount = 0;
+	}
+
+	/**
+	 * Anota una arista nueva o abaratada para aplicarla a Floyd en la siguiente
+	 * consulta. Si hay demasiadas pendientes, Floyd se recalculara entero.
+	 * 
+	 * @param origin      indice del nodo origen
+	 * @param destination indice del nodo destino
+	 */
+	private void recordFloydDecrease(int origin, int destination) {
+		if (!floydCalculated) {
+			return;
+		}
+		if (floydPendingCount >= floydUpdateThreshold) {
+			invalidateFloyd();
+			return;
+		}
+		if (2 * floydPendingCount == floydPendingEdges.length) {
+			floydPendingEdges = Arrays.copyOf(floydPendingEdges, Math.max(8, 4 * floydPendingCount));
+		}
+		floydPendingEdges[2 * floydPendingCount] = origin;
+		floydPendingEdges[2 * floydPendingCount + 1] = destination;
+		floydPendingCount++;
+	}
+
+	/**
+	 * Añade a las matrices de Floyd un nodo nuevo sin aristas, O(V).
+	 * 
+	 * @param index indice del nodo nuevo
+	 */
+	private void addFloydNode(int index) {
+		for (int i = 0; i < size; i++) {
+			floydCostsA[index][i] = INFINITY;
+			floydCostsA[i][index] = INFINITY;
+			floydPathsP[index][i] = EMPTY;
+			floydPathsP[i][index] = EMPTY;
+			if (floydNextHops != null) {
+				floydNextHops[index][i] = NO_NEXT_HOP;
+				floydNextHops[i][index] = NO_NEXT_HOP;
+			}
+		}
+		floydCostsA[index][index] = 0;
+		if (floydNextHops != null) {
+			floydNextHops[index][index] = index;
+		}
+	}
+
+	/**
+	 * Actualiza Floyd tras añadir o abaratar la arista origen -> destino, O(V^2).
+	 * Un camino i -> j solo puede mejorar pasando por la arista, con coste
+	 * A[i][origen] + peso + A[destino][j]. Con pesos positivos esa fila y esa
+	 * columna no cambian, por lo que se puede actualizar en el sitio.
+	 * 
+	 * @param origin      indice del nodo origen
+	 * @param destination indice del nodo destino
+	 * @param weight      peso de la arista
+	 */
+	private void applyFloydDecrease(int origin, int destination, double weight) {
+		if (origin == destination || weight >= floydCostsA[origin][destination]) {
+			return;
+		}
+		double[] destinationRow = floydCostsA[destination];
+		for (int i = 0; i < size; i++) {
+			double toEdge = floydCostsA[i][origin] + weight;
+			if (toEdge >= floydCostsA[i][destination]) {
+				continue; // ningun camino desde i mejora
+			}
+			double[] row = floydCostsA[i];
+			for (int j = 0; j < size; j++) {
+				double newCost = toEdge + destinationRow[j];
+				if (newCost < row[j]) {
+					row[j] = newCost;
+					if (i != origin) {
+						floydPathsP[i][j] = origin;
+					} else {
+						floydPathsP[i][j] = (j == destination) ? EMPTY : destination;
+					}
+					if (floydNextHops != null) {
+						// El camino nuevo es i -> ... -> origen -> destino -> ... -> j
+						floydNextHops[i][j] = (i == origin) ? destination : floydNextHops[i][origin];
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Comprueba si existe un camino del nodo origen al nodo destino. Todo nodo se
+	 * alcanza a si mismo. La primera consulta calcula la clausura transitiva con
+	 * Warshall sobre filas de bits, O(V^3 / 64); despues cada consulta es O(1)
+	 * mientras no se borren aristas ni nodos (las aristas y nodos nuevos se
+	 * incorporan sobre la marcha).
+	 * 
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @return true si destino es alcanzable desde origen, false en caso contrario
+	 */
+	public boolean isReachable(T origin, T destination) {
+		int originIndex = getValidNodeIndex(origin);
+		int destinationIndex = getValidNodeIndex(destination);
+		if (!reachabilityCalculated) {
+			calculateReachability();
+		}
+		return reachability.get(originIndex, destinationIndex);
+	}
+
+	/**
+	 * Comprueba si la clausura transitiva esta calculada, es decir, si isReachable
+	 * no va a modificarla.
+	 * 
+	 * @return true si esta calculada
+	 */
+	boolean isReachabilityCalculated() {
+		return reachabilityCalculated;
+	}
+
+	/**
+	 * Calcula la clausura transitiva con el algoritmo de Warshall: si i alcanza k,
+	 * i alcanza todo lo que alcanza k, asi que se hace la OR de la fila k sobre la
+	 * fila i palabra a palabra.
+	 */
+	void calculateReachability() {
+		reachability = edgeRows.copyOf(capacity, size);
+		for (int i = 0; i < size; i++) {
+			reachability.set(i, i);
+		}
+		for (int pivot = 0; pivot < size; pivot++) {
+			for (int origin = 0; origin < size; origin++) {
+				if (origin != pivot && reachability.get(origin, pivot)) {
+					reachability.orRow(origin, pivot);
+				}
+			}
+		}
+		reachabilityCalculated = true;
+	}
+
+	/**
+	 * Incorpora a la clausura un nodo nuevo sin aristas, que solo se alcanza a si
+	 * mismo.
+	 * 
+	 * @param index indice del nodo nuevo
+	 */
+	private void addReachabilityNode(int index) {
+		if (!reachabilityCalculated) {
+			return;
+		}
+		reachability.clear(index, 0, capacity);
+		for (int i = 0; i < size; i++) {
+			reachability.clear(i, index);
+		}
+		reachability.set(index, index);
+	}
+
+	/**
+	 * Incorpora a la clausura la arista origen -> destino, O(V^2 / 64): todo nodo
+	 * que alcanzaba el origen pasa a alcanzar lo que alcanza el destino.
+	 * 
+	 * @param origin      indice del nodo origen
+	 * @param destination indice del nodo destino
+	 */
+	private void addReachableEdge(int origin, int destination) {
+		if (!reachabilityCalculated || reachability.get(origin, destination)) {
+			return;
+		}
+		for (int i = 0; i < size; i++) {
+			if (reachability.get(i, origin)) {
+				reachability.orRow(i, destination);
+			}
+		}
 	}
 
 	/**
@@ -563,9 +2011,7 @@ public class MatrixGraph<T> implements Graph<T> {
 	public String printFloydPath(T origin, T destination) {
 		int originIndex = getValidNodeIndex(origin);
 		int destinationIndex = getValidNodeIndex(destination);
-		if (!floydCalculated) {
-			floyd();
-		}
+		updateFloyd();
 		if (floydCostsA[originIndex][destinationIndex] == INFINITY) {
 			return origin + "_NO_PATH_FOUND_TO_" + destination;
 		}
@@ -576,6 +2022,80 @@ public class MatrixGraph<T> implements Graph<T> {
 		return path.toString();
 	}
 
+	/**
+	 * Devuelve el camino minimo de Floyd como indices de nodo, de origen a destino,
+	 * siguiendo la matriz de siguientes saltos. Si no hay camino devuelve un array
+	 * vacio. Requiere setFloydNextHops(true).
+	 * 
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @return indices del camino
+	 */
+	public int[] floydPathIndexes(T origin, T destination) {
+		int originIndex = getValidNodeIndex(origin);
+		int destinationIndex = getValidNodeIndex(destination);
+		prepareFloydNextHops();
+		if (floydCostsA[originIndex][destinationIndex] == INFINITY) {
+			return new int[0];
+		}
+		int length = 1;
+		for (int i = originIndex; i != destinationIndex; i = floydNextHops[i][destinationIndex]) {
+			length++;
+		}
+		int[] path = new int[length];
+		int position = 0;
+		for (int i = originIndex; i != destinationIndex; i = floydNextHops[i][destinationIndex]) {
+			path[position++] = i;
+		}
+		path[position] = destinationIndex;
+		return path;
+	}
+
+	/**
+	 * Devuelve el camino minimo de Floyd como lista de nodos, de origen a destino.
+	 * Si no hay camino devuelve una lista vacia. Requiere setFloydNextHops(true).
+	 * 
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @return nodos del camino
+	 */
+	public List<T> floydPath(T origin, T destination) {
+		int[] indexes = floydPathIndexes(origin, destination);
+		List<T> path = new ArrayList<T>(indexes.length);
+		for (int index : indexes) {
+			path.add(nodes[index]);
+		}
+		return path;
+	}
+
+	/**
+	 * Devuelve un iterador sobre los indices del camino minimo de Floyd. Cada paso
+	 * lee un salto de la matriz, sin reservar memoria. Si el grafo cambia durante
+	 * el recorrido, nextInt lanza ConcurrentModificationException. Requiere
+	 * setFloydNextHops(true).
+	 * 
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @return iterador de indices del camino, vacio si no hay camino
+	 */
+	public PrimitiveIterator.OfInt floydPathIterator(T origin, T destination) {
+		int originIndex = getValidNodeIndex(origin);
+		int destinationIndex = getValidNodeIndex(destination);
+		prepareFloydNextHops();
+		boolean reachable = floydCostsA[originIndex][destinationIndex] != INFINITY;
+		return new FloydPathIterator(reachable ? originIndex : NO_NEXT_HOP, destinationIndex);
+	}
+
+	/**
+	 * Deja Floyd al dia y comprueba que se mantenga la matriz de siguientes saltos
+	 */
+	private void prepareFloydNextHops() {
+		if (!floydNextHopsEnabled) {
+			throw new IllegalStateException("La matriz de siguientes saltos no esta activada");
+		}
+		updateFloyd();
+	}
+
 	/**
 	 * Construye la cadena con el camino obtenido al hacer Floyd
 	 * 
@@ -602,11 +2122,216 @@ public class MatrixGraph<T> implements Graph<T> {
 	public double minimumCostPathFloyd(T origin, T destination) {
 		int originIndex = getValidNodeIndex(origin);
 		int destinationIndex = getValidNodeIndex(destination);
-		if (!floydCalculated) {
-			floyd();
-		}
+		updateFloyd();
 		double cost = floydCostsA[originIndex][destinationIndex];
 		return cost;
 	}
 
+	/**
+	 * Base de los iteradores de recorrido: guarda los nodos visitados en un bitset
+	 * y calcula el siguiente nodo con un paso de antelacion.
+	 */
+	private abstract class TraversalIterator implements Iterator<T> {
+
+		final BitSet visited = new BitSet(size);
+		private final long expectedModificationCount = modificationCount;
+		private int nextIndex;
+
+		/**
+		 * Constructor de TraversalIterator que recibe origin como parametro
+		 * 
+		 * @param origin indice del nodo origen
+		 */
+		TraversalIterator(int origin) {
+			visited.set(origin);
+			nextIndex = origin;
+		}
+
+		/**
+		 * Avanza el recorrido
+		 * 
+		 * @return indice del siguiente nodo o INDEX_NOT_FOUND si ha terminado
+		 */
+		abstract int advance();
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex != INDEX_NOT_FOUND;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			if (modificationCount != expectedModificationCount) {
+				throw new ConcurrentModificationException();
+			}
+			T element = nodes[nextIndex];
+			nextIndex = advance();
+			return element;
+		}
+
+		/**
+		 * Devuelve el primer vecino no visitado de un nodo a partir de un indice
+		 * 
+		 * @param index indice del nodo
+		 * @param from  primer vecino candidato
+		 * @return indice del vecino o INDEX_NOT_FOUND
+		 */
+		int nextUnvisitedNeighbour(int index, int from) {
+			for (int i = edgeRows.nextSetBit(index, from); i >= 0 && i < size; i = edgeRows.nextSetBit(index, i + 1)) {
+				if (!visited.get(i)) {
+					return i;
+				}
+			}
+			return INDEX_NOT_FOUND;
+		}
+	}
+
+	/**
+	 * Recorrido en profundidad con pila explicita. Para cada nodo de la pila se
+	 * guarda por que vecino va, de modo que el orden es el del recorrido recursivo.
+	 */
+	private class DepthFirstIterator extends TraversalIterator {
+
+		private final int[] stack = new int[size];
+		private final int[] cursors = new int[size]; // siguiente vecino a mirar
+		private int depth;
+
+		DepthFirstIterator(int origin) {
+			super(origin);
+			stack[0] = origin;
+			depth = 1;
+		}
+
+		@Override
+		int advance() {
+			while (depth > 0) {
+				int top = depth - 1;
+				int neighbour = nextUnvisitedNeighbour(stack[top], cursors[top]);
+				if (neighbour != INDEX_NOT_FOUND) {
+					cursors[top] = neighbour + 1;
+					visited.set(neighbour);
+					stack[depth] = neighbour;
+					cursors[depth] = 0;
+					depth++;
+					return neighbour;
+				}
+				depth--;
+			}
+			return INDEX_NOT_FOUND;
+		}
+	}
+
+	/**
+	 * Recorrido en anchura con una cola sobre un array: cada nodo entra una sola
+	 * vez, asi que basta con size posiciones.
+	 */
+	private class BreadthFirstIterator extends TraversalIterator {
+
+		private final int[] queue = new int[size];
+		private int head;
+		private int tail;
+		private int current; // nodo cuyos vecinos se estan encolando
+		private int cursor;
+
+		BreadthFirstIterator(int origin) {
+			super(origin);
+			current = origin;
+		}
+
+		@Override
+		int advance() {
+			while (true) {
+				int neighbour = nextUnvisitedNeighbour(current, cursor);
+				if (neighbour != INDEX_NOT_FOUND) {
+					cursor = neighbour + 1;
+					visited.set(neighbour);
+					queue[tail++] = neighbour;
+					return neighbour;
+				}
+				if (head == tail) {
+					return INDEX_NOT_FOUND;
+				}
+				current = queue[head++];
+				cursor = 0;
+			}
+		}
+	}
+
+	/**
+	 * Iterador sobre los indices de un camino de Floyd que sigue la matriz de
+	 * siguientes saltos.
+	 */
+	private class FloydPathIterator implements PrimitiveIterator.OfInt {
+
+		private final long expectedModificationCount = modificationCount;
+		private final int[][] nextHops = floydNextHops;
+		private final int destination;
+		private int current; // NO_NEXT_HOP cuando se ha terminado
+
+		FloydPathIterator(int origin, int destination) {
+			this.current = origin;
+			this.destination = destination;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return current != NO_NEXT_HOP;
+		}
+
+		@Override
+		public int nextInt() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			if (modificationCount != expectedModificationCount) {
+				throw new ConcurrentModificationException();
+			}
+			int index = current;
+			current = (index == destination) ? NO_NEXT_HOP : nextHops[index][destination];
+			return index;
+		}
+	}
+
+	/**
+	 * Vista por indices del grafo que usan los algoritmos compartidos.
+	 */
+	private class IndexedView implements IndexedGraph {
+
+		@Override
+		public int getIndexCount() {
+			return size;
+		}
+
+		@Override
+		public void forEachOutEdge(int index, EdgeVisitor visitor) {
+			for (int i = edgeRows.nextSetBit(index, 0); i >= 0 && i < size; i = edgeRows.nextSetBit(index, i + 1)) {
+				visitor.visit(i, weights.get(index, i));
+			}
+		}
+	}
+
+
+	/**
+	 * Vista por indices del grafo con las aristas invertidas: las aristas
+	 * "salientes" de un nodo son las que entran en el en el grafo original.
+	 */
+	private class ReversedView implements IndexedGraph {
+
+		@Override
+		public int getIndexCount() {
+			return size;
+		}
+
+		@Override
+		public void forEachOutEdge(int index, EdgeVisitor visitor) {
+			for (int i = edgeColumns.nextSetBit(index, 0); i >= 0 && i < size; i = edgeColumns.nextSetBit(index,
+					i + 1)) {
+				visitor.visit(i, weights.get(i, index));
+			}
+		}
+	}
+
 }
@@ -0,0 +1,35 @@
+package graph;
+
+/**
+ * Formas de guardar en memoria las matrices de un {@link MatrixGraph}.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+public enum MatrixStorage {
+
+	/**
+	 * Pesos en un double[][] y matrices de Floyd reservadas en el constructor.
+	 * getWeights() devuelve la matriz interna.
+	 */
+	STANDARD,
+
+	/**
+	 * Pesos en un unico array plano de double (fila tras fila) y matrices de Floyd
+	 * reservadas en el primer floyd(). getWeights() devuelve una copia.
+	 */
+	LEAN,
+
+	/**
+	 * Igual que LEAN pero con los pesos en float: la mitad de memoria a cambio de
+	 * unos 7 digitos significativos de precision.
+	 */
+	LEAN_FLOAT,
+
+	/**
+	 * Pesos en double fuera del heap, en ByteBuffers directos o en un fichero
+	 * mapeado (MatrixGraph.fileBacked), y matrices de Floyd reservadas en el
+	 * primer floyd(). El recolector de basura no tiene que recorrer ni copiar la
+	 * matriz de pesos. getWeights() devuelve una copia.
+	 */
+	OFF_HEAP
+}
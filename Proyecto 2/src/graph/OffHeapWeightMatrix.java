@@ -0,0 +1,157 @@
+package graph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Pesos fuera del heap de Java, en ByteBuffers directos o en un fichero
+ * mapeado en memoria. El recolector de basura solo ve unos pocos objetos
+ * pequeños, asi que sus pausas no crecen con el grafo.
+ * <p>
+ * Un ByteBuffer no pasa de 2 GB, por lo que la matriz se reparte en trozos de
+ * filas completas. Los buffers directos cuentan para -XX:MaxDirectMemorySize
+ * (por defecto, el tamaño maximo del heap) y se liberan cuando la matriz deja
+ * de usarse.
+ * <p>
+ * Con fichero, el fichero es espacio de trabajo, no un formato para guardar el
+ * grafo (para eso esta {@link GraphFiles}): al cambiar de capacidad, la matriz
+ * nueva se mapea a continuacion de la anterior en el mismo fichero.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+final class OffHeapWeightMatrix implements WeightMatrix {
+
+	static final int DEFAULT_CHUNK_BYTES = 1 << 30;
+
+	private final DoubleBuffer[] chunks;
+	private final int dimension;
+	private final int rowsPerChunk;
+	private final int chunkBytes;
+	private final Path file; // null si los buffers son directos
+	private final long fileEnd; // primer byte del fichero tras esta matriz
+
+	/**
+	 * Constructor de OffHeapWeightMatrix con buffers directos
+	 *
+	 * @param dimension numero de filas y de columnas
+	 */
+	OffHeapWeightMatrix(int dimension) {
+		this(dimension, DEFAULT_CHUNK_BYTES, null, 0);
+	}
+
+	/**
+	 * Constructor de OffHeapWeightMatrix que recibe dimension, chunkBytes, file y
+	 * fileOffset como parametros
+	 *
+	 * @param dimension  numero de filas y de columnas
+	 * @param chunkBytes tamaño maximo de cada trozo (al menos una fila)
+	 * @param file       fichero donde se mapea la matriz o null para buffers
+	 *                   directos
+	 * @param fileOffset posicion del fichero donde empieza la matriz
+	 */
+	OffHeapWeightMatrix(int dimension, int chunkBytes, Path file, long fileOffset) {
+		long rowBytes = (long) dimension * Double.BYTES;
+		if (rowBytes > chunkBytes) {
+			throw new IllegalArgumentException("dimension demasiado grande: una fila no cabe en un trozo");
+		}
+		this.dimension = dimension;
+		this.chunkBytes = chunkBytes;
+		this.file = file;
+		rowsPerChunk = dimension == 0 ? 1 : (int) (chunkBytes / rowBytes);
+		chunks = new DoubleBuffer[(dimension + rowsPerChunk - 1) / rowsPerChunk];
+		long offset = fileOffset;
+		try (FileChannel channel = file == null ? null
+				: FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+						StandardOpenOption.WRITE)) {
+			for (int i = 0; i < chunks.length; i++) {
+				int rows = Math.min(rowsPerChunk, dimension - i * rowsPerChunk);
+				int bytes = (int) (rows * rowBytes);
+				ByteBuffer buffer = channel == null ? ByteBuffer.allocateDirect(bytes)
+						: channel.map(FileChannel.MapMode.READ_WRITE, offset, bytes);
+				chunks[i] = buffer.order(ByteOrder.nativeOrder()).asDoubleBuffer();
+				offset += bytes;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		fileEnd = offset;
+	}
+
+	/**
+	 * Crea una matriz mapeada sobre un fichero, que se crea si no existe. Su
+	 * contenido previo se sobrescribe.
+	 *
+	 * @param dimension numero de filas y de columnas
+	 * @param file      fichero
+	 * @return matriz nueva
+	 * @throws IOException si no se puede mapear el fichero
+	 */
+	static OffHeapWeightMatrix mapped(int dimension, Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			channel.truncate(0); // las celdas nuevas tienen que empezar a 0
+		}
+		try {
+			return new OffHeapWeightMatrix(dimension, DEFAULT_CHUNK_BYTES, file, 0);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Devuelve si la matriz esta mapeada sobre un fichero
+	 *
+	 * @return true si tiene fichero
+	 */
+	boolean isFileBacked() {
+		return file != null;
+	}
+
+	@Override
+	public double get(int row, int column) {
+		return chunks[row / rowsPerChunk].get((row % rowsPerChunk) * dimension + column);
+	}
+
+	@Override
+	public void set(int row, int column, double weight) {
+		chunks[row / rowsPerChunk].put((row % rowsPerChunk) * dimension + column, weight);
+	}
+
+	@Override
+	public void clear(int row, int fromColumn, int toColumn) {
+		DoubleBuffer chunk = chunks[row / rowsPerChunk];
+		int rowStart = (row % rowsPerChunk) * dimension;
+		for (int column = fromColumn; column < toColumn; column++) {
+			chunk.put(rowStart + column, 0.0);
+		}
+	}
+
+	@Override
+	public WeightMatrix copyOf(int newDimension, int keep) {
+		OffHeapWeightMatrix copy = new OffHeapWeightMatrix(newDimension, chunkBytes, file, fileEnd);
+		for (int row = 0; row < keep; row++) {
+			copy.chunks[row / copy.rowsPerChunk].put((row % copy.rowsPerChunk) * newDimension,
+					chunks[row / rowsPerChunk], (row % rowsPerChunk) * dimension, keep);
+		}
+		return copy;
+	}
+
+	/**
+	 * Devuelve una copia de la matriz en el heap
+	 *
+	 * @return matriz de pesos
+	 */
+	@Override
+	public double[][] toArray() {
+		double[][] result = new double[dimension][dimension];
+		for (int row = 0; row < dimension; row++) {
+			chunks[row / rowsPerChunk].get((row % rowsPerChunk) * dimension, result[row]);
+		}
+		return result;
+	}
+}
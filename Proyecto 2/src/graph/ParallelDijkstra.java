@@ -0,0 +1,69 @@
+package graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+/**
+ * Ejecuta Dijkstra desde varios origenes en paralelo. El rango de origenes se
+ * divide por la mitad hasta quedar un origen por tarea; cada busqueda solo lee
+ * el grafo y escribe en su propia posicion del array de resultados.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+final class ParallelDijkstra extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient IntFunction<DijkstraDataClass> engine;
+	private final int[] origins;
+	private final transient DijkstraDataClass[] results;
+	private final int from;
+	private final int to;
+
+	/**
+	 * Constructor privado, se usa desde {@link #run}
+	 *
+	 * @param engine  Dijkstra desde un indice
+	 * @param origins indices de los origenes
+	 * @param results resultados, en el mismo orden que origins
+	 * @param from    primer origen de la tarea (incluido)
+	 * @param to      ultimo origen de la tarea (excluido)
+	 */
+	private ParallelDijkstra(IntFunction<DijkstraDataClass> engine, int[] origins, DijkstraDataClass[] results,
+			int from, int to) {
+		this.engine = engine;
+		this.origins = origins;
+		this.results = results;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Ejecuta Dijkstra desde cada origen en el pool dado.
+	 *
+	 * @param engine  Dijkstra desde un indice; tiene que poder usarse desde varios
+	 *                hilos a la vez
+	 * @param origins indices de los origenes
+	 * @param pool    pool en el que se ejecutan las tareas
+	 * @return un resultado por origen, en el mismo orden
+	 */
+	static DijkstraDataClass[] run(IntFunction<DijkstraDataClass> engine, int[] origins, ForkJoinPool pool) {
+		DijkstraDataClass[] results = new DijkstraDataClass[origins.length];
+		if (origins.length > 0) {
+			pool.invoke(new ParallelDijkstra(engine, origins, results, 0, origins.length));
+		}
+		return results;
+	}
+
+	@Override
+	protected void compute() {
+		if (to - from == 1) {
+			results[from] = engine.apply(origins[from]);
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		invokeAll(new ParallelDijkstra(engine, origins, results, from, middle),
+				new ParallelDijkstra(engine, origins, results, middle, to));
+	}
+}
@@ -0,0 +1,113 @@
+package graph;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una busqueda de camino minimo entre dos nodos: coste, camino y
+ * numero de nodos expandidos (asentados) por la busqueda.
+ *
+ * @author Yaiza Fernandez Vega
+ *
+ * @param <T> tipo de los nodos
+ */
+public class PathResult<T> {
+
+	private final T origin;
+	private final T destination;
+	private final double cost;
+	private final List<T> path;
+	private final int expandedNodes;
+
+	/**
+	 * Constructor de PathResult
+	 *
+	 * @param origin        nodo origen
+	 * @param destination   nodo destino
+	 * @param cost          coste del camino o infinito si no hay camino
+	 * @param path          nodos del camino, de origen a destino (vacio si no hay)
+	 * @param expandedNodes numero de nodos expandidos
+	 */
+	PathResult(T origin, T destination, double cost, List<T> path, int expandedNodes) {
+		this.origin = origin;
+		this.destination = destination;
+		this.cost = cost;
+		this.path = Collections.unmodifiableList(path);
+		this.expandedNodes = expandedNodes;
+	}
+
+	/**
+	 * Devuelve el nodo origen
+	 *
+	 * @return the origin
+	 */
+	public T getOrigin() {
+		return origin;
+	}
+
+	/**
+	 * Devuelve el nodo destino
+	 *
+	 * @return the destination
+	 */
+	public T getDestination() {
+		return destination;
+	}
+
+	/**
+	 * Devuelve el coste del camino, o infinito si no hay camino
+	 *
+	 * @return the cost
+	 */
+	public double getCost() {
+		return cost;
+	}
+
+	/**
+	 * Devuelve los nodos del camino, de origen a destino. Esta vacio si no hay
+	 * camino.
+	 *
+	 * @return the path
+	 */
+	public List<T> getPath() {
+		return path;
+	}
+
+	/**
+	 * Devuelve el numero de nodos que expandio la busqueda
+	 *
+	 * @return the expandedNodes
+	 */
+	public int getExpandedNodes() {
+		return expandedNodes;
+	}
+
+	/**
+	 * Comprueba si se encontro un camino
+	 *
+	 * @return true si hay camino, false en caso contrario
+	 */
+	public boolean isPathFound() {
+		return !path.isEmpty();
+	}
+
+	/**
+	 * Devuelve el camino con el mismo formato que printFloydPath
+	 *
+	 * @return cadena con el camino
+	 */
+	@Override
+	public String toString() {
+		if (!isPathFound()) {
+			return origin + "_NO_PATH_FOUND_TO_" + destination;
+		}
+		if (path.size() == 1) {
+			return origin.toString() + destination.toString();
+		}
+		StringBuilder result = new StringBuilder();
+		for (T node : path) {
+			result.append(node.toString());
+		}
+		return result.toString();
+	}
+}
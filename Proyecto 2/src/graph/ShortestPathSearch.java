@@ -0,0 +1,271 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Busquedas de camino minimo entre dos nodos concretos sobre un
+ * {@link IndexedGraph}. A diferencia de Dijkstra completo, paran en cuanto el
+ * camino al destino es definitivo.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+final class ShortestPathSearch {
+
+	static final int NO_PREDECESSOR = -1;
+
+	/**
+	 * Clase de utilidad, no se instancia
+	 */
+	private ShortestPathSearch() {
+	}
+
+	/**
+	 * Camino expresado con indices de nodo.
+	 */
+	static final class IndexPath {
+
+		final double cost;
+		final int[] path; // vacio si no hay camino
+		final int expandedNodes;
+
+		IndexPath(double cost, int[] path, int expandedNodes) {
+			this.cost = cost;
+			this.path = path;
+			this.expandedNodes = expandedNodes;
+		}
+	}
+
+	/**
+	 * Dijkstra con monticulo que termina cuando el destino pasa a ser pivote.
+	 *
+	 * @param graph       grafo
+	 * @param origin      indice del nodo origen
+	 * @param destination indice del nodo destino
+	 * @return camino minimo
+	 */
+	static IndexPath dijkstra(IndexedGraph graph, int origin, int destination) {
+		Search search = new Search(graph.getIndexCount(), origin);
+		while (!search.pending.isEmpty()) {
+			int pivot = search.settleNext();
+			if (pivot == destination) {
+				break;
+			}
+			graph.forEachOutEdge(pivot, search);
+		}
+		return new IndexPath(search.costs[destination], search.pathTo(destination), search.expandedNodes);
+	}
+
+	/**
+	 * Dijkstra bidireccional: una busqueda hacia delante desde el origen y otra
+	 * hacia atras (por las aristas entrantes) desde el destino. En cada paso avanza
+	 * la que tiene el pivote mas barato, y se para cuando la suma de los dos
+	 * pivotes ya no puede mejorar el mejor camino encontrado.
+	 *
+	 * @param forward     grafo
+	 * @param backward    grafo con las aristas invertidas
+	 * @param origin      indice del nodo origen
+	 * @param destination indice del nodo destino
+	 * @return camino minimo
+	 */
+	static IndexPath bidirectional(IndexedGraph forward, IndexedGraph backward, int origin, int destination) {
+		int nodeNumber = forward.getIndexCount();
+		if (origin == destination) {
+			return new IndexPath(0, new int[] { origin }, 1);
+		}
+		Search forwardSearch = new Search(nodeNumber, origin);
+		Search backwardSearch = new Search(nodeNumber, destination);
+		forwardSearch.opposite = backwardSearch;
+		backwardSearch.opposite = forwardSearch;
+		backwardSearch.reversed = true;
+
+		Meeting meeting = new Meeting();
+		forwardSearch.meeting = meeting;
+		backwardSearch.meeting = meeting;
+
+		while (!forwardSearch.pending.isEmpty() && !backwardSearch.pending.isEmpty()) {
+			if (forwardSearch.pending.peekMinKey() + backwardSearch.pending.peekMinKey() >= meeting.cost) {
+				break;
+			}
+			if (forwardSearch.pending.peekMinKey() <= backwardSearch.pending.peekMinKey()) {
+				forward.forEachOutEdge(forwardSearch.settleNext(), forwardSearch);
+			} else {
+				backward.forEachOutEdge(backwardSearch.settleNext(), backwardSearch);
+			}
+		}
+
+		int expanded = forwardSearch.expandedNodes + backwardSearch.expandedNodes;
+		if (meeting.cost == Double.POSITIVE_INFINITY) {
+			return new IndexPath(meeting.cost, new int[0], expanded);
+		}
+		int[] head = forwardSearch.pathTo(meeting.tail);
+		int[] tail = backwardSearch.pathTo(meeting.head); // de destino a head
+		int[] path = Arrays.copyOf(head, head.length + tail.length);
+		for (int i = 0; i < tail.length; i++) {
+			path[head.length + i] = tail[tail.length - 1 - i];
+		}
+		return new IndexPath(meeting.cost, path, expanded);
+	}
+
+	/**
+	 * Busqueda A*: los nodos se extraen por coste acumulado mas la estimacion de la
+	 * heuristica hasta el destino. Con una heuristica admisible (que nunca
+	 * sobreestima) el coste devuelto es el minimo; si ademas no es consistente, los
+	 * nodos ya expandidos se reabren cuando se les encuentra un camino mejor.
+	 *
+	 * @param graph       grafo
+	 * @param origin      indice del nodo origen
+	 * @param destination indice del nodo destino
+	 * @param heuristic   estimacion del coste desde cada indice al destino
+	 * @return camino minimo
+	 */
+	static IndexPath aStar(IndexedGraph graph, int origin, int destination, IntToDoubleFunction heuristic) {
+		AStarSearch search = new AStarSearch(graph.getIndexCount(), origin, heuristic);
+		while (!search.pending.isEmpty()) {
+			int pivot = search.settleNext();
+			if (pivot == destination) {
+				break;
+			}
+			graph.forEachOutEdge(pivot, search);
+		}
+		return new IndexPath(search.costs[destination], search.pathTo(destination), search.expandedNodes);
+	}
+
+	/**
+	 * Mejor punto de encuentro de la busqueda bidireccional: la arista tail -> head
+	 * une el camino hacia delante (hasta tail) con el camino hacia atras (desde
+	 * head).
+	 */
+	private static final class Meeting {
+		double cost = Double.POSITIVE_INFINITY;
+		int tail = NO_PREDECESSOR;
+		int head = NO_PREDECESSOR;
+	}
+
+	/**
+	 * Estado de una busqueda en un sentido.
+	 */
+	private static class Search implements IndexedGraph.EdgeVisitor {
+
+		final double[] costs;
+		final int[] predecessors;
+		final boolean[] settled;
+		final IndexedMinHeap pending;
+		int expandedNodes;
+		int pivot;
+
+		Search opposite; // solo en la busqueda bidireccional
+		Meeting meeting;
+		boolean reversed;
+
+		Search(int nodeNumber, int origin) {
+			costs = new double[nodeNumber];
+			predecessors = new int[nodeNumber];
+			settled = new boolean[nodeNumber];
+			pending = new IndexedMinHeap(nodeNumber);
+			Arrays.fill(costs, Double.POSITIVE_INFINITY);
+			Arrays.fill(predecessors, NO_PREDECESSOR);
+			costs[origin] = 0;
+			pending.insertOrDecrease(origin, 0);
+		}
+
+		/**
+		 * Extrae y asienta el siguiente pivote
+		 *
+		 * @return pivote
+		 */
+		int settleNext() {
+			pivot = pending.extractMin();
+			settled[pivot] = true;
+			expandedNodes++;
+			return pivot;
+		}
+
+		@Override
+		public void visit(int destinationIndex, double weight) {
+			double newCost = costs[pivot] + weight;
+			if (opposite != null && opposite.costs[destinationIndex] != Double.POSITIVE_INFINITY) {
+				double throughEdge = newCost + opposite.costs[destinationIndex];
+				if (throughEdge < meeting.cost) {
+					meeting.cost = throughEdge;
+					meeting.tail = reversed ? destinationIndex : pivot;
+					meeting.head = reversed ? pivot : destinationIndex;
+				}
+			}
+			if (!settled[destinationIndex] && newCost < costs[destinationIndex]) {
+				costs[destinationIndex] = newCost;
+				predecessors[destinationIndex] = pivot;
+				pending.insertOrDecrease(destinationIndex, newCost);
+			}
+		}
+
+		/**
+		 * Devuelve el camino desde el origen de esta busqueda hasta el nodo dado
+		 *
+		 * @param node indice del nodo
+		 * @return indices del camino, vacio si no se ha alcanzado
+		 */
+		int[] pathTo(int node) {
+			if (costs[node] == Double.POSITIVE_INFINITY) {
+				return new int[0];
+			}
+			int length = 0;
+			for (int current = node; current != NO_PREDECESSOR; current = predecessors[current]) {
+				length++;
+			}
+			int[] path = new int[length];
+			for (int current = node; current != NO_PREDECESSOR; current = predecessors[current]) {
+				path[--length] = current;
+			}
+			return path;
+		}
+	}
+
+	/**
+	 * Estado de una busqueda A*. Las estimaciones de la heuristica se calculan una
+	 * sola vez por nodo.
+	 */
+	private static final class AStarSearch extends Search {
+
+		final double[] estimates;
+		final IntToDoubleFunction heuristic;
+
+		AStarSearch(int nodeNumber, int origin, IntToDoubleFunction heuristic) {
+			super(nodeNumber, origin);
+			this.heuristic = heuristic;
+			estimates = new double[nodeNumber];
+			Arrays.fill(estimates, Double.NaN);
+			pending.clear();
+			pending.insertOrDecrease(origin, estimate(origin));
+		}
+
+		@Override
+		public void visit(int destinationIndex, double weight) {
+			// Sin comprobar settled: un nodo ya expandido se reabre si mejora
+			double newCost = costs[pivot] + weight;
+			if (newCost < costs[destinationIndex]) {
+				costs[destinationIndex] = newCost;
+				predecessors[destinationIndex] = pivot;
+				pending.insertOrDecrease(destinationIndex, newCost + estimate(destinationIndex));
+			}
+		}
+
+		/**
+		 * Devuelve la estimacion de la heuristica para un nodo
+		 *
+		 * @param node indice del nodo
+		 * @return estimacion
+		 */
+		private double estimate(int node) {
+			double estimate = estimates[node];
+			if (Double.isNaN(estimate)) {
+				estimate = heuristic.applyAsDouble(node);
+				if (Double.isNaN(estimate) || estimate < 0) {
+					throw new IllegalArgumentException("La heuristica debe devolver valores >= 0");
+				}
+				estimates[node] = estimate;
+			}
+			return estimate;
+		}
+	}
+}
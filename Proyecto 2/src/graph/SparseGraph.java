@@ -0,0 +1,825 @@
+package graph;
+
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import graph.exceptions.ElementNotPresentException;
+
+/**
+ * Grafo dirigido y ponderado disperso en formato CSR (compressed sparse row).
+ *
+ * Las aristas compactadas se guardan en tres arrays: rowStart (inicio de la
+ * fila de cada nodo), targets y edgeWeights, con cada fila ordenada por nodo
+ * destino. Las aristas nuevas van a un buffer de desbordamiento por nodo que se
+ * vuelca al CSR (compactacion) cuando crece demasiado o antes de un recorrido.
+ * Las aristas borradas del CSR se marcan con peso REMOVED hasta la siguiente
+ * compactacion.
+ *
+ * La memoria es O(V+E); solo Floyd reserva matrices V x V al ejecutarse.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+public class SparseGraph<T> implements Graph<T> {
+
+	static final int INDEX_NOT_FOUND = -1;
+	static final int WEIGHT_NOT_FOUND = -1;
+	public static final double INFINITY = Double.POSITIVE_INFINITY;
+	public static final int EMPTY = -1;
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final int MIN_COMPACTION_THRESHOLD = 64;
+	private static final double REMOVED = 0.0; // los pesos validos son > 0
+
+	private T[] nodes;
+	private Map<T, Integer> nodeIndexes;
+	private int size;
+
+	private int[] rowStart; // fila i en [rowStart[i], rowStart[i + 1])
+	private int[] targets;
+	private double[] edgeWeights;
+	private int removedEdges; // aristas marcadas como REMOVED en el CSR
+
+	private int[][] pendingTargets; // buffer de desbordamiento por nodo
+	private double[][] pendingWeights;
+	private int[] pendingCount;
+	private int pendingEdges;
+
+	private int edgeCount;
+	private int[] inDegree;
+	private int[] outDegree;
+
+	private double[][] floydCostsA;
+	private int[][] floydPathsP;
+	private boolean floydCalculated;
+
+	private final IndexedGraph indexedView = new IndexedView();
+
+	/**
+	 * Constructor de SparseGraph con capacidad inicial por defecto
+	 */
+	public SparseGraph() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor de SparseGraph que recibe la capacidad inicial como parametro.
+	 * La capacidad crece automaticamente al añadir nodos.
+	 *
+	 * @param initialCapacity capacidad inicial
+	 */
+	@SuppressWarnings("unchecked")
+	public SparseGraph(int initialCapacity) {
+		if (initialCapacity <= 0) {
+			throw new IllegalArgumentException("capacidad no puede ser <= 0");
+		}
+		nodes = (T[]) new Object[initialCapacity];
+		nodeIndexes = new HashMap<T, Integer>(initialCapacity * 2);
+		rowStart = new int[initialCapacity + 1];
+		targets = new int[0];
+		edgeWeights = new double[0];
+		pendingTargets = new int[initialCapacity][];
+		pendingWeights = new double[initialCapacity][];
+		pendingCount = new int[initialCapacity];
+		inDegree = new int[initialCapacity];
+		outDegree = new int[initialCapacity];
+		size = 0;
+	}
+
+	/**
+	 * Devuelve el tamaño del grafo.
+	 *
+	 * @return size tamaño del grafo
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Devuelve el numero de aristas del grafo.
+	 *
+	 * @return numero de aristas
+	 */
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Devuelve floydCostsA, o null si Floyd no se ha ejecutado nunca
+	 *
+	 * @return the floydCostsA
+	 */
+	public double[][] getFloydCostsA() {
+		return floydCostsA;
+	}
+
+	/**
+	 * Devuelve floydPathsP, o null si Floyd no se ha ejecutado nunca
+	 *
+	 * @return the floydPathsP
+	 */
+	public int[][] getFloydPathsP() {
+		return floydPathsP;
+	}
+
+	/**
+	 * Devuelve el indice del nodo pasado como parametro. Si no encuentra el nodo,
+	 * devuelve INDEX_NOT_FOUND
+	 *
+	 * @param element nodo
+	 * @return indice o INDEX_NOT_FOUND
+	 */
+	int getNodeIndex(T element) {
+		Integer index = nodeIndexes.get(element);
+		return index == null ? INDEX_NOT_FOUND : index;
+	}
+
+	/**
+	 * Comprueba que el nodo pasado como parametro no sea null. Si lo es lanza
+	 * excepcion.
+	 *
+	 * @param element nodo
+	 */
+	private void checkNull(T element) {
+		if (element == null) {
+			throw new NullPointerException("element no puede ser null");
+		}
+	}
+
+	/**
+	 * Devuelve el indice de un nodo. Si el nodo no existe se lanza excepcion.
+	 *
+	 * @param element nodo
+	 * @return indice
+	 */
+	private int getValidNodeIndex(T element) {
+		checkNull(element);
+		int index = getNodeIndex(element);
+		if (index == INDEX_NOT_FOUND) {
+			throw new ElementNotPresentException();
+		}
+		return index;
+	}
+
+	/**
+	 * Comprueba que el nodo pasado como parametro exista.
+	 *
+	 * @param element nodo
+	 * @return true en caso de que exista, false en caso contrario
+	 */
+	public boolean existsNode(T element) {
+		checkNull(element);
+		return getNodeIndex(element) != INDEX_NOT_FOUND;
+	}
+
+	/**
+	 * Añade un nodo al grafo. Si no cabe, se duplica la capacidad.
+	 *
+	 * @param element nodo a añadir
+	 * @return true si se puede añadir, false en caso contrario
+	 */
+	public boolean addNode(T element) {
+		checkNull(element);
+		if (existsNode(element)) {
+			return false;
+		}
+		if (size == nodes.length) {
+			grow(nodes.length * 2);
+		}
+		nodes[size] = element;
+		nodeIndexes.put(element, size);
+		rowStart[size + 1] = rowStart[size];
+		pendingCount[size] = 0;
+		inDegree[size] = 0;
+		outDegree[size] = 0;
+		size++;
+		floydCalculated = false;
+		return true;
+	}
+
+	/**
+	 * Amplia los arrays indexados por nodo a la nueva capacidad.
+	 *
+	 * @param newCapacity nueva capacidad
+	 */
+	private void grow(int newCapacity) {
+		nodes = Arrays.copyOf(nodes, newCapacity);
+		rowStart = Arrays.copyOf(rowStart, newCapacity + 1);
+		pendingTargets = Arrays.copyOf(pendingTargets, newCapacity);
+		pendingWeights = Arrays.copyOf(pendingWeights, newCapacity);
+		pendingCount = Arrays.copyOf(pendingCount, newCapacity);
+		inDegree = Arrays.copyOf(inDegree, newCapacity);
+		outDegree = Arrays.copyOf(outDegree, newCapacity);
+	}
+
+	/**
+	 * Elimina un nodo y todas sus aristas. El ultimo nodo pasa a ocupar su indice,
+	 * igual que en {@link MatrixGraph}. Reconstruye el CSR, O(V+E).
+	 *
+	 * @param element nodo a eliminar
+	 * @return true si se puede eliminar, false en caso contrario
+	 */
+	public boolean removeNode(T element) {
+		checkNull(element);
+		int pos = getNodeIndex(element);
+		if (pos == INDEX_NOT_FOUND) {
+			return false;
+		}
+		rebuild(pos);
+		int last = size - 1;
+		nodeIndexes.remove(element);
+		if (pos != last) {
+			nodes[pos] = nodes[last];
+			nodeIndexes.put(nodes[pos], pos);
+		}
+		nodes[last] = null;
+		size--;
+		floydCalculated = false;
+		return true;
+	}
+
+	/**
+	 * Busca la arista origen -> destino en el CSR mediante busqueda binaria.
+	 *
+	 * @param originIndex      indice del nodo origen
+	 * @param destinationIndex indice del nodo destino
+	 * @return posicion en targets (aunque este marcada como REMOVED) o
+	 *         INDEX_NOT_FOUND
+	 */
+	private int findCompactedEdge(int originIndex, int destinationIndex) {
+		int position = Arrays.binarySearch(targets, rowStart[originIndex], rowStart[originIndex + 1],
+				destinationIndex);
+		return position < 0 ? INDEX_NOT_FOUND : position;
+	}
+
+	/**
+	 * Busca la arista origen -> destino en el buffer de desbordamiento.
+	 *
+	 * @param originIndex      indice del nodo origen
+	 * @param destinationIndex indice del nodo destino
+	 * @return posicion en el buffer del nodo origen o INDEX_NOT_FOUND
+	 */
+	private int findPendingEdge(int originIndex, int destinationIndex) {
+		int[] row = pendingTargets[originIndex];
+		for (int i = 0; i < pendingCount[originIndex]; i++) {
+			if (row[i] == destinationIndex) {
+				return i;
+			}
+		}
+		return INDEX_NOT_FOUND;
+	}
+
+	/**
+	 * Devuelve el peso de la arista origen -> destino o WEIGHT_NOT_FOUND si no
+	 * existe.
+	 *
+	 * @param originIndex      indice del nodo origen
+	 * @param destinationIndex indice del nodo destino
+	 * @return peso o WEIGHT_NOT_FOUND
+	 */
+	private double findWeight(int originIndex, int destinationIndex) {
+		int position = findCompactedEdge(originIndex, destinationIndex);
+		if (position != INDEX_NOT_FOUND && edgeWeights[position] != REMOVED) {
+			return edgeWeights[position];
+		}
+		position = findPendingEdge(originIndex, destinationIndex);
+		if (position != INDEX_NOT_FOUND) {
+			return pendingWeights[originIndex][position];
+		}
+		return WEIGHT_NOT_FOUND;
+	}
+
+	/**
+	 * Comprueba que exista una arista entre dos nodos.
+	 *
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @return true si existe, false en caso contrario
+	 */
+	public boolean existsEdge(T originElement, T destinationElement) {
+		checkNull(originElement);
+		checkNull(destinationElement);
+		int originIndex = getNodeIndex(originElement);
+		int destinationIndex = getNodeIndex(destinationElement);
+		if (originIndex == INDEX_NOT_FOUND || destinationIndex == INDEX_NOT_FOUND) {
+			return false;
+		}
+		return findWeight(originIndex, destinationIndex) != WEIGHT_NOT_FOUND;
+	}
+
+	/**
+	 * Devuelve el peso entre dos nodos.
+	 *
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @return peso entre dos nodos en caso de que haya, sino WEIGHT_NOT_FOUND
+	 */
+	public double getWeight(T originElement, T destinationElement) {
+		int originIndex = getValidNodeIndex(originElement);
+		int destinationIndex = getValidNodeIndex(destinationElement);
+		return findWeight(originIndex, destinationIndex);
+	}
+
+	/**
+	 * Añade una arista. Si ya estaba en el CSR marcada como borrada se reutiliza
+	 * su hueco; si no, se guarda en el buffer de desbordamiento.
+	 *
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @param weight             peso
+	 * @return true si se puede añadir, false en caso contrario
+	 */
+	public boolean addEdge(T originElement, T destinationElement, double weight) {
+		int originIndex = getValidNodeIndex(originElement);
+		int destinationIndex = getValidNodeIndex(destinationElement);
+		if (weight <= 0) {
+			throw new IllegalArgumentException("Weight no puede ser <= 0");
+		}
+		int position = findCompactedEdge(originIndex, destinationIndex);
+		if (position != INDEX_NOT_FOUND) {
+			if (edgeWeights[position] != REMOVED) {
+				return false;
+			}
+			edgeWeights[position] = weight;
+			removedEdges--;
+		} else {
+			if (findPendingEdge(originIndex, destinationIndex) != INDEX_NOT_FOUND) {
+				return false;
+			}
+			addPendingEdge(originIndex, destinationIndex, weight);
+		}
+		edgeCount++;
+		outDegree[originIndex]++;
+		inDegree[destinationIndex]++;
+		floydCalculated = false;
+		compactIfOverflowing();
+		return true;
+	}
+
+	/**
+	 * Guarda una arista en el buffer de desbordamiento del nodo origen.
+	 *
+	 * @param originIndex      indice del nodo origen
+	 * @param destinationIndex indice del nodo destino
+	 * @param weight           peso
+	 */
+	private void addPendingEdge(int originIndex, int destinationIndex, double weight) {
+		int count = pendingCount[originIndex];
+		if (pendingTargets[originIndex] == null) {
+			pendingTargets[originIndex] = new int[4];
+			pendingWeights[originIndex] = new double[4];
+		} else if (count == pendingTargets[originIndex].length) {
+			pendingTargets[originIndex] = Arrays.copyOf(pendingTargets[originIndex], count * 2);
+			pendingWeights[originIndex] = Arrays.copyOf(pendingWeights[originIndex], count * 2);
+		}
+		pendingTargets[originIndex][count] = destinationIndex;
+		pendingWeights[originIndex][count] = weight;
+		pendingCount[originIndex]++;
+		pendingEdges++;
+	}
+
+	/**
+	 * Elimina una arista.
+	 *
+	 * @param originElement      nodo origen
+	 * @param destinationElement nodo destino
+	 * @return true si se puede eliminar, false en caso contrario
+	 */
+	public boolean removeEdge(T originElement, T destinationElement) {
+		int originIndex = getValidNodeIndex(originElement);
+		int destinationIndex = getValidNodeIndex(destinationElement);
+		int position = findCompactedEdge(originIndex, destinationIndex);
+		if (position != INDEX_NOT_FOUND && edgeWeights[position] != REMOVED) {
+			edgeWeights[position] = REMOVED;
+			removedEdges++;
+		} else {
+			position = findPendingEdge(originIndex, destinationIndex);
+			if (position == INDEX_NOT_FOUND) {
+				return false;
+			}
+			int last = --pendingCount[originIndex];
+			pendingTargets[originIndex][position] = pendingTargets[originIndex][last];
+			pendingWeights[originIndex][position] = pendingWeights[originIndex][last];
+			pendingEdges--;
+		}
+		edgeCount--;
+		outDegree[originIndex]--;
+		inDegree[destinationIndex]--;
+		floydCalculated = false;
+		compactIfOverflowing();
+		return true;
+	}
+
+	/**
+	 * Vuelca el buffer de desbordamiento al CSR y descarta las aristas borradas.
+	 * Despues de compactar, cada fila queda ordenada por nodo destino.
+	 */
+	public void compact() {
+		if (pendingEdges > 0 || removedEdges > 0) {
+			rebuild(INDEX_NOT_FOUND);
+		}
+	}
+
+	/**
+	 * Compacta si el buffer y las aristas borradas superan la mitad del grafo, de
+	 * modo que el coste de compactar queda amortizado en O(1) por operacion.
+	 */
+	private void compactIfOverflowing() {
+		if (pendingEdges + removedEdges > MIN_COMPACTION_THRESHOLD + (edgeCount + size) / 2) {
+			rebuild(INDEX_NOT_FOUND);
+		}
+	}
+
+	/**
+	 * Reconstruye el CSR a partir de las aristas vivas del CSR y del buffer. Si se
+	 * indica un nodo a eliminar, se descartan sus aristas y el ultimo nodo pasa a
+	 * ocupar su indice.
+	 *
+	 * @param removedIndex indice del nodo a eliminar o INDEX_NOT_FOUND
+	 */
+	private void rebuild(int removedIndex) {
+		int last = size - 1;
+		int newSize = removedIndex == INDEX_NOT_FOUND ? size : size - 1;
+		int[] newRowStart = new int[nodes.length + 1];
+		int[] newTargets = new int[edgeCount];
+		double[] newWeights = new double[edgeCount];
+		long[] rowKeys = new long[0];
+		int[] rowTargets = new int[0];
+		double[] rowWeights = new double[0];
+		Arrays.fill(inDegree, 0, size, 0);
+
+		int next = 0;
+		for (int row = 0; row < newSize; row++) {
+			int oldRow = (row == removedIndex) ? last : row;
+			int degree = rowStart[oldRow + 1] - rowStart[oldRow] + pendingCount[oldRow];
+			if (rowKeys.length < degree) {
+				rowKeys = new long[degree];
+				rowTargets = new int[degree];
+				rowWeights = new double[degree];
+			}
+			int count = 0;
+			for (int i = rowStart[oldRow]; i < rowStart[oldRow + 1]; i++) {
+				if (edgeWeights[i] != REMOVED) {
+					count = addRowEdge(targets[i], edgeWeights[i], removedIndex, last, count, rowTargets, rowWeights);
+				}
+			}
+			for (int i = 0; i < pendingCount[oldRow]; i++) {
+				count = addRowEdge(pendingTargets[oldRow][i], pendingWeights[oldRow][i], removedIndex, last, count,
+						rowTargets, rowWeights);
+			}
+			for (int i = 0; i < count; i++) {
+				rowKeys[i] = ((long) rowTargets[i] << 32) | i;
+			}
+			Arrays.sort(rowKeys, 0, count);
+			newRowStart[row] = next;
+			for (int i = 0; i < count; i++) {
+				int local = (int) rowKeys[i];
+				newTargets[next] = rowTargets[local];
+				newWeights[next] = rowWeights[local];
+				inDegree[rowTargets[local]]++;
+				next++;
+			}
+			outDegree[row] = count;
+		}
+		for (int row = newSize; row <= nodes.length; row++) {
+			newRowStart[row] = next;
+		}
+
+		rowStart = newRowStart;
+		targets = next == newTargets.length ? newTargets : Arrays.copyOf(newTargets, next);
+		edgeWeights = next == newWeights.length ? newWeights : Arrays.copyOf(newWeights, next);
+		edgeCount = next;
+		removedEdges = 0;
+		pendingEdges = 0;
+		Arrays.fill(pendingCount, 0);
+		Arrays.fill(pendingTargets, null);
+		Arrays.fill(pendingWeights, null);
+	}
+
+	/**
+	 * Añade una arista a la fila temporal de la reconstruccion, descartando las
+	 * que llegan al nodo eliminado y renombrando las que llegan al ultimo nodo.
+	 *
+	 * @param target       indice del nodo destino
+	 * @param weight       peso
+	 * @param removedIndex indice del nodo eliminado o INDEX_NOT_FOUND
+	 * @param last         indice del ultimo nodo
+	 * @param count        numero de aristas en la fila temporal
+	 * @param rowTargets   destinos de la fila temporal
+	 * @param rowWeights   pesos de la fila temporal
+	 * @return nuevo numero de aristas en la fila temporal
+	 */
+	private int addRowEdge(int target, double weight, int removedIndex, int last, int count, int[] rowTargets,
+			double[] rowWeights) {
+		if (removedIndex != INDEX_NOT_FOUND) {
+			if (target == removedIndex) {
+				return count;
+			}
+			if (target == last) {
+				target = removedIndex;
+			}
+		}
+		rowTargets[count] = target;
+		rowWeights[count] = weight;
+		return count + 1;
+	}
+
+	/**
+	 * Devuelve true si el nodo pasado como parametro es fuente, false en caso
+	 * contrario
+	 *
+	 * @param element nodo
+	 * @return true si el nodo es fuente, false en caso contrario
+	 */
+	public boolean isSourceNode(T element) {
+		int index = getValidNodeIndex(element);
+		return outDegree[index] > 0 && inDegree[index] == 0;
+	}
+
+	/**
+	 * Devuelve true si el nodo pasado como parametro es sumidero, false en caso
+	 * contrario
+	 *
+	 * @param element nodo
+	 * @return true si el nodo es sumidero, false en caso contrario
+	 */
+	public boolean isDrainNode(T element) {
+		int index = getValidNodeIndex(element);
+		return outDegree[index] == 0 && inDegree[index] > 0;
+	}
+
+	/**
+	 * Devuelve true si el nodo pasado como parametro esta aislado, false en caso
+	 * contrario
+	 *
+	 * @param element nodo
+	 * @return true si el nodo esta aislado, false en caso contrario
+	 */
+	public boolean isIsolatedNode(T element) {
+		int index = getValidNodeIndex(element);
+		return outDegree[index] == 0 && inDegree[index] == 0;
+	}
+
+	/**
+	 * Ejecuta el algoritmo de Dijkstra desde un nodo origen. Usa un monticulo
+	 * indexado y solo recorre los vecinos reales de cada pivote.
+	 *
+	 * @param startingElement nodo origen
+	 * @return DijkstraDataClass dijkstra
+	 */
+	public DijkstraDataClass dijkstra(T startingElement) {
+		int index = getValidNodeIndex(startingElement);
+		compact();
+		return HeapDijkstra.run(indexedView, index);
+	}
+
+	/**
+	 * Caminos minimos desde un origen con delta-stepping en paralelo sobre el pool
+	 * comun. Los costes son los mismos que los de dijkstra; si hay varios caminos
+	 * minimos el predecesor puede ser otro.
+	 *
+	 * @param startingElement nodo origen
+	 * @param delta           anchura de los cubos, mayor que 0
+	 * @return DijkstraDataClass dijkstra
+	 */
+	public DijkstraDataClass deltaStepping(T startingElement, double delta) {
+		int index = getValidNodeIndex(startingElement);
+		compact();
+		return DeltaStepping.run(indexedView, index, delta, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Ejecuta Dijkstra desde un nodo origen dejando el resultado en un workspace
+	 * reutilizable, sin reservar memoria en las consultas.
+	 *
+	 * @param startingElement nodo origen
+	 * @param workspace       workspace donde se escribe el resultado
+	 * @return el mismo workspace
+	 */
+	public DijkstraWorkspace dijkstraInto(T startingElement, DijkstraWorkspace workspace) {
+		int index = getValidNodeIndex(startingElement);
+		if (workspace == null) {
+			throw new NullPointerException("workspace no puede ser null");
+		}
+		compact();
+		workspace.run(indexedView, index);
+		return workspace;
+	}
+
+	/**
+	 * Congela el estado actual del grafo en un {@link GraphSnapshot} inmutable.
+	 * Compacta el grafo y copia su CSR, O(V + E).
+	 *
+	 * @return snapshot del grafo
+	 */
+	public GraphSnapshot<T> freeze() {
+		compact();
+		return new GraphSnapshot<T>(Arrays.copyOf(nodes, size, Object[].class), Arrays.copyOf(rowStart, size + 1),
+				Arrays.copyOf(targets, edgeCount), Arrays.copyOf(edgeWeights, edgeCount), 0);
+	}
+
+	/**
+	 * Devuelve el coste mínimo entre dos nodos usando Dijkstra.
+	 *
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @return coste mínimo del camino
+	 */
+	public double minimumCostPathDijkstra(T origin, T destination) {
+		getValidNodeIndex(origin);
+		int destIndex = getValidNodeIndex(destination);
+		DijkstraDataClass dijkstra = dijkstra(origin);
+		return dijkstra.getDijkstraCostsDValue(destIndex);
+	}
+
+	/**
+	 * Realiza un recorrido en profundidad desde un nodo. Es iterativo (pila
+	 * explicita) y visita los vecinos en orden de indice, igual que
+	 * {@link MatrixGraph#printDepthFirstTraversal(Object)}.
+	 *
+	 * @param origin nodo origen
+	 * @return cadena con el recorrido
+	 */
+	public String printDepthFirstTraversal(T origin) {
+		int index = getValidNodeIndex(origin);
+		compact();
+		boolean[] visitedNodes = new boolean[size];
+		int[] stack = new int[size];
+		int[] cursor = new int[size]; // siguiente arista a mirar de cada nodo de la pila
+		StringBuilder path = new StringBuilder();
+
+		int top = 0;
+		stack[top] = index;
+		cursor[top] = rowStart[index];
+		visitedNodes[index] = true;
+		path.append(nodes[index].toString()).append('-');
+		while (top >= 0) {
+			int node = stack[top];
+			int end = rowStart[node + 1];
+			while (cursor[top] < end && visitedNodes[targets[cursor[top]]]) {
+				cursor[top]++;
+			}
+			if (cursor[top] == end) {
+				top--;
+			} else {
+				int next = targets[cursor[top]++];
+				visitedNodes[next] = true;
+				path.append(nodes[next].toString()).append('-');
+				top++;
+				stack[top] = next;
+				cursor[top] = rowStart[next];
+			}
+		}
+		return path.toString();
+	}
+
+	/**
+	 * Ejecuta el algoritmo de Floyd. Las matrices se reservan aqui, con el tamaño
+	 * actual del grafo.
+	 *
+	 * @return true si se ejecuto correctamente, false si el grafo esta vacio
+	 */
+	public boolean floyd() {
+		if (size == 0)
+			return false;
+		if (floydCostsA == null || floydCostsA.length != size) {
+			floydCostsA = new double[size][size];
+			floydPathsP = new int[size][size];
+		}
+		for (int row = 0; row < size; row++) {
+			Arrays.fill(floydCostsA[row], INFINITY);
+			Arrays.fill(floydPathsP[row], EMPTY);
+			floydCostsA[row][row] = 0;
+			final double[] costsRow = floydCostsA[row];
+			final int origin = row;
+			indexedView.forEachOutEdge(row, (destination, weight) -> {
+				if (destination != origin) {
+					costsRow[destination] = weight;
+				}
+			});
+		}
+		for (int pivot = 0; pivot < size; pivot++) {
+			double[] pivotRow = floydCostsA[pivot];
+			for (int origin = 0; origin < size; origin++) {
+				double originPivot = floydCostsA[origin][pivot];
+				if (originPivot == INFINITY) {
+					continue;
+				}
+				double[] originRow = floydCostsA[origin];
+				for (int destination = 0; destination < size; destination++) {
+					double newCost = originPivot + pivotRow[destination];
+					if (newCost < originRow[destination]) {
+						originRow[destination] = newCost;
+						floydPathsP[origin][destination] = pivot;
+					}
+				}
+			}
+		}
+		floydCalculated = true;
+		return true;
+	}
+
+	/**
+	 * Imprime el camino obtenido al hacer Floyd.
+	 *
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @return cadena con el camino obtenido
+	 */
+	public String printFloydPath(T origin, T destination) {
+		int originIndex = getValidNodeIndex(origin);
+		int destinationIndex = getValidNodeIndex(destination);
+		if (!floydCalculated) {
+			floyd();
+		}
+		if (floydCostsA[originIndex][destinationIndex] == INFINITY) {
+			return origin + "_NO_PATH_FOUND_TO_" + destination;
+		}
+		StringBuilder path = new StringBuilder();
+		path.append(origin.toString());
+		buildFloydPath(originIndex, destinationIndex, path);
+		path.append(destination.toString());
+		return path.toString();
+	}
+
+	/**
+	 * Construye la cadena con el camino obtenido al hacer Floyd
+	 *
+	 * @param originIndex      nodo origen
+	 * @param destinationIndex nodo destino
+	 * @param path             camino
+	 */
+	private void buildFloydPath(int originIndex, int destinationIndex, StringBuilder path) {
+		int pivot = floydPathsP[originIndex][destinationIndex];
+		if (pivot != EMPTY) {
+			buildFloydPath(originIndex, pivot, path);
+			path.append(nodes[pivot].toString());
+			buildFloydPath(pivot, destinationIndex, path);
+		}
+	}
+
+	/**
+	 * Devuelve el coste mínimo entre dos nodos usando Floyd.
+	 *
+	 * @param origin      nodo origen
+	 * @param destination nodo destino
+	 * @return coste mínimo del camino
+	 */
+	public double minimumCostPathFloyd(T origin, T destination) {
+		int originIndex = getValidNodeIndex(origin);
+		int destinationIndex = getValidNodeIndex(destination);
+		if (!floydCalculated) {
+			floyd();
+		}
+		return floydCostsA[originIndex][destinationIndex];
+	}
+
+	/**
+	 * Returns a string representation of the graph: the nodes and, for each one,
+	 * its outgoing edges with their weights.
+	 *
+	 * @return a string representation of the graph
+	 */
+	@Override
+	public String toString() {
+		DecimalFormat df = new DecimalFormat("#.##");
+		StringBuilder result = new StringBuilder("NODES\n");
+		for (int i = 0; i < size; i++) {
+			result.append(nodes[i]).append('\t');
+		}
+		result.append("\n\nEDGES\n");
+		for (int i = 0; i < size; i++) {
+			final StringBuilder row = result.append(nodes[i]);
+			indexedView.forEachOutEdge(i, (destination, weight) -> row.append('\t').append(nodes[destination])
+					.append(':').append(df.format(weight)));
+			result.append('\n');
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Vista por indices del grafo que usan los algoritmos compartidos.
+	 */
+	private class IndexedView implements IndexedGraph {
+
+		@Override
+		public int getIndexCount() {
+			return size;
+		}
+
+		@Override
+		public void forEachOutEdge(int index, EdgeVisitor visitor) {
+			for (int i = rowStart[index]; i < rowStart[index + 1]; i++) {
+				if (edgeWeights[i] != REMOVED) {
+					visitor.visit(targets[i], edgeWeights[i]);
+				}
+			}
+			for (int i = 0; i < pendingCount[index]; i++) {
+				visitor.visit(pendingTargets[index][i], pendingWeights[index][i]);
+			}
+		}
+	}
+
+}
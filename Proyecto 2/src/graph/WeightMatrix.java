@@ -0,0 +1,76 @@
+package graph;
+
+/**
+ * Matriz cuadrada de pesos de un {@link MatrixGraph}. Las celdas sin arista
+ * valen 0; si hay arista o no lo dicen las matrices de bits del grafo.
+ *
+ * @author Yaiza Fernandez Vega
+ */
+interface WeightMatrix {
+
+	/**
+	 * Crea una matriz de pesos vacia para una forma de almacenamiento
+	 *
+	 * @param storage   forma de almacenamiento
+	 * @param dimension numero de filas y de columnas
+	 * @return matriz nueva
+	 */
+	static WeightMatrix create(MatrixStorage storage, int dimension) {
+		switch (storage) {
+		case LEAN:
+			return new FlatDoubleWeightMatrix(dimension);
+		case LEAN_FLOAT:
+			return new FlatFloatWeightMatrix(dimension);
+		case OFF_HEAP:
+			return new OffHeapWeightMatrix(dimension);
+		default:
+			return new DoubleWeightMatrix(new double[dimension][dimension]);
+		}
+	}
+
+	/**
+	 * Devuelve el peso de una celda
+	 *
+	 * @param row    fila
+	 * @param column columna
+	 * @return peso
+	 */
+	double get(int row, int column);
+
+	/**
+	 * Cambia el peso de una celda
+	 *
+	 * @param row    fila
+	 * @param column columna
+	 * @param weight peso
+	 */
+	void set(int row, int column, double weight);
+
+	/**
+	 * Pone a 0 las celdas de una fila en el rango de columnas [fromColumn,
+	 * toColumn)
+	 *
+	 * @param row        fila
+	 * @param fromColumn primera columna (incluida)
+	 * @param toColumn   ultima columna (excluida)
+	 */
+	void clear(int row, int fromColumn, int toColumn);
+
+	/**
+	 * Devuelve una matriz del mismo tipo y otra dimension con las primeras filas y
+	 * columnas de esta. El resto de celdas quedan a 0.
+	 *
+	 * @param newDimension dimension de la nueva matriz
+	 * @param keep         numero de filas y columnas que se copian
+	 * @return nueva matriz
+	 */
+	WeightMatrix copyOf(int newDimension, int keep);
+
+	/**
+	 * Devuelve la matriz como double[][]. Puede ser la matriz interna, no una
+	 * copia.
+	 *
+	 * @return matriz de pesos
+	 */
+	double[][] toArray();
+}
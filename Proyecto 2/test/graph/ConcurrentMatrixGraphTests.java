@@ -0,0 +1,180 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import graph.exceptions.ElementNotPresentException;
+
+class ConcurrentMatrixGraphTests {
+
+	private static final double DELTA = 0.0001;
+
+	@Test
+	void testSameResultsAsMatrixGraph() {
+		ConcurrentMatrixGraph<Character> graph = new ConcurrentMatrixGraph<Character>(5);
+		MatrixGraph<Character> expected = GraphTestHelper.createComplexTraversalCharacterGraph();
+		for (char element = 'A'; element <= 'E'; element++) {
+			assertTrue(graph.addNode(element));
+		}
+		for (char origin = 'A'; origin <= 'E'; origin++) {
+			for (char destination = 'A'; destination <= 'E'; destination++) {
+				if (expected.existsEdge(origin, destination)) {
+					assertTrue(graph.addEdge(origin, destination, expected.getWeight(origin, destination)));
+				}
+			}
+		}
+		assertEquals(5, graph.getSize());
+		for (char origin = 'A'; origin <= 'E'; origin++) {
+			assertEquals(expected.printDepthFirstTraversal(origin), graph.printDepthFirstTraversal(origin));
+			assertArrayEquals(expected.dijkstra(origin).getDijkstraCostsD(),
+					graph.dijkstra(origin).getDijkstraCostsD(), DELTA);
+			for (char destination = 'A'; destination <= 'E'; destination++) {
+				assertEquals(expected.existsEdge(origin, destination), graph.existsEdge(origin, destination));
+				assertEquals(expected.minimumCostPathFloyd(origin, destination),
+						graph.minimumCostPathFloyd(origin, destination), DELTA);
+				assertEquals(expected.minimumCostPathDijkstra(origin, destination),
+						graph.minimumCostPathDijkstra(origin, destination), DELTA);
+				assertEquals(expected.printFloydPath(origin, destination), graph.printFloydPath(origin, destination));
+				assertEquals(expected.isReachable(origin, destination), graph.isReachable(origin, destination));
+			}
+		}
+
+		assertThrows(NullPointerException.class, () -> graph.existsEdge(null, 'A'));
+		assertThrows(ElementNotPresentException.class, () -> graph.getWeight('A', 'Z'));
+		assertThrows(ElementNotPresentException.class, () -> graph.minimumCostPathFloyd('Z', 'A'));
+	}
+
+	@Test
+	void testLazyFloydRunsOnce() throws Exception {
+		int nodes = 150;
+		AtomicInteger recomputations = new AtomicInteger();
+		MatrixGraph<Integer> counted = new MatrixGraph<Integer>(nodes) {
+			@Override
+			void updateFloyd() {
+				// Only the calls that find Floyd stale do any work
+				if (!isFloydUpToDate()) {
+					recomputations.incrementAndGet();
+				}
+				super.updateFloyd();
+			}
+		};
+		Random random = new Random(21);
+		for (int i = 0; i < nodes; i++) {
+			counted.addNode(i);
+		}
+		for (int i = 0; i < 4 * nodes; i++) {
+			counted.addEdge(random.nextInt(nodes), random.nextInt(nodes), 1 + random.nextInt(20));
+		}
+		ConcurrentMatrixGraph<Integer> graph = new ConcurrentMatrixGraph<Integer>(counted);
+
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Double>> futures = new ArrayList<Future<Double>>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				return graph.minimumCostPathFloyd(0, nodes - 1);
+			}));
+		}
+		start.countDown();
+		double cost = futures.get(0).get(60, TimeUnit.SECONDS);
+		for (Future<Double> future : futures) {
+			assertEquals(cost, future.get(60, TimeUnit.SECONDS), DELTA);
+		}
+		executor.shutdown();
+		assertEquals(1, recomputations.get());
+
+		// A change makes Floyd stale again and the next query recomputes once more
+		graph.addEdge(0, nodes - 1, 0.5);
+		assertEquals(0.5, graph.minimumCostPathFloyd(0, nodes - 1), DELTA);
+		assertEquals(0.5, graph.minimumCostPathFloyd(0, nodes - 1), DELTA);
+		assertEquals(2, recomputations.get());
+	}
+
+	@Test
+	void testConcurrentReadersAndWriter() throws Exception {
+		int nodes = 60;
+		ConcurrentMatrixGraph<Integer> graph = new ConcurrentMatrixGraph<Integer>(nodes);
+		for (int i = 0; i < nodes; i++) {
+			graph.addNode(i);
+		}
+		// Every edge i -> j ever added has weight i + j + 1, so readers can check what
+		// they see while the writer keeps adding and removing edges
+		int readers = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		futures.add(executor.submit(() -> {
+			start.await();
+			Random random = new Random(21);
+			for (int step = 0; step < 3000; step++) {
+				int origin = random.nextInt(nodes);
+				int destination = random.nextInt(nodes);
+				if (random.nextInt(3) == 0) {
+					graph.removeEdge(origin, destination);
+				} else {
+					graph.addEdge(origin, destination, origin + destination + 1);
+				}
+			}
+			return null;
+		}));
+		for (int r = 0; r < readers; r++) {
+			int seed = r;
+			futures.add(executor.submit((Callable<Void>) () -> {
+				start.await();
+				Random random = new Random(seed);
+				for (int step = 0; step < 2000; step++) {
+					int origin = random.nextInt(nodes);
+					int destination = random.nextInt(nodes);
+					double weight = graph.getWeight(origin, destination);
+					assertTrue(weight == MatrixGraph.WEIGHT_NOT_FOUND || weight == origin + destination + 1);
+					double cost = graph.minimumCostPathFloyd(origin, destination);
+					assertTrue(cost >= 0);
+					assertTrue(graph.isReachable(origin, origin));
+					graph.isReachable(origin, destination);
+					if (step % 50 == 0) {
+						assertEquals(0.0, graph.dijkstra(origin).getDijkstraCostsDValue(origin), DELTA);
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		// Once quiet, the concurrent answers match a sequential recomputation
+		MatrixGraph<Integer> expected = new MatrixGraph<Integer>(nodes);
+		for (int i = 0; i < nodes; i++) {
+			expected.addNode(i);
+		}
+		for (int i = 0; i < nodes; i++) {
+			for (int j = 0; j < nodes; j++) {
+				if (graph.existsEdge(i, j)) {
+					expected.addEdge(i, j, graph.getWeight(i, j));
+				}
+			}
+		}
+		for (int i = 0; i < nodes; i++) {
+			for (int j = 0; j < nodes; j++) {
+				assertEquals(expected.minimumCostPathFloyd(i, j), graph.minimumCostPathFloyd(i, j), DELTA);
+				assertEquals(expected.isReachable(i, j), graph.isReachable(i, j));
+			}
+		}
+	}
+}
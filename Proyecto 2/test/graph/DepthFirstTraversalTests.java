@@ -2,6 +2,16 @@ package graph;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.junit.jupiter.api.Test;
 
 import graph.exceptions.ElementNotPresentException;
@@ -168,4 +178,130 @@ class DepthFirstTraversalTests {
 		assertEquals("B-C-D-A-", traversalB);
 	}
 
+	@Test
+	void testTraversalIteratorsAndStreams() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+
+		for (char origin = 'A'; origin <= 'E'; origin++) {
+			StringBuilder iterated = new StringBuilder();
+			for (Iterator<Character> iterator = graph.depthFirstIterator(origin); iterator.hasNext();) {
+				iterated.append(iterator.next()).append('-');
+			}
+			assertEquals(graph.printDepthFirstTraversal(origin), iterated.toString());
+		}
+		assertEquals(List.of('B', 'C', 'A', 'E', 'D'), graph.depthFirstStream('B').collect(Collectors.toList()));
+
+		assertEquals(List.of('A', 'B', 'E', 'C', 'D'), graph.breadthFirstStream('A').collect(Collectors.toList()));
+		assertEquals(List.of('B', 'C', 'E', 'A', 'D'), graph.breadthFirstStream('B').collect(Collectors.toList()));
+		assertEquals(List.of('D', 'A', 'C', 'E', 'B'), graph.breadthFirstStream('D').collect(Collectors.toList()));
+		assertEquals(List.of('E'), graph.breadthFirstStream('E').collect(Collectors.toList()));
+		// Lazy: only the first nodes are visited
+		assertEquals(List.of('D', 'A'), graph.breadthFirstStream('D').limit(2).collect(Collectors.toList()));
+
+		assertThrows(NullPointerException.class, () -> graph.depthFirstIterator(null));
+		assertThrows(ElementNotPresentException.class, () -> graph.breadthFirstIterator('x'));
+	}
+
+	@Test
+	void testTraversalWriters() throws IOException {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+
+		StringWriter depthFirst = new StringWriter();
+		graph.writeDepthFirstTraversal('C', depthFirst);
+		assertEquals("C-A-B-E-D-", depthFirst.toString());
+
+		StringBuilder breadthFirst = new StringBuilder();
+		graph.writeBreadthFirstTraversal('C', breadthFirst);
+		assertEquals("C-A-D-E-B-", breadthFirst.toString());
+
+		assertThrows(NullPointerException.class, () -> graph.writeDepthFirstTraversal('C', null));
+	}
+
+	@Test
+	void testTraversalFailFast() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+
+		Iterator<Character> iterator = graph.depthFirstIterator('A');
+		assertEquals('A', iterator.next());
+		graph.addEdge('E', 'A', 1.0);
+		assertThrows(ConcurrentModificationException.class, () -> iterator.next());
+
+		Iterator<Character> finished = GraphTestHelper.createComplexTraversalCharacterGraph().breadthFirstIterator('E');
+		finished.next();
+		assertFalse(finished.hasNext());
+		assertThrows(NoSuchElementException.class, () -> finished.next());
+	}
+
+	@Test
+	void testLongChainTraversal() {
+		// Deep enough to need a real stack for every node
+		int length = 3000;
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(length);
+		for (int i = 0; i < length; i++) {
+			graph.addNode(i);
+			if (i > 0) {
+				graph.addEdge(i - 1, i, 1.0);
+			}
+		}
+		assertEquals(length, graph.depthFirstStream(0).count());
+		assertEquals(length - 1, (int) graph.depthFirstStream(0).reduce((a, b) -> b).get());
+		assertEquals(length, graph.breadthFirstStream(0).count());
+		String traversal = graph.printDepthFirstTraversal(0);
+		assertTrue(traversal.startsWith("0-1-2-"));
+		assertTrue(traversal.endsWith("2998-2999-"));
+	}
+
+	@Test
+	void testIsReachable() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+		List<Character> elements = List.of('A', 'B', 'C', 'D', 'E');
+		for (Character origin : elements) {
+			Set<Character> visited = graph.depthFirstStream(origin).collect(Collectors.toSet());
+			for (Character destination : elements) {
+				assertEquals(visited.contains(destination), graph.isReachable(origin, destination));
+			}
+		}
+		assertTrue(graph.isReachable('E', 'E'));
+		assertThrows(NullPointerException.class, () -> graph.isReachable(null, 'A'));
+		assertThrows(ElementNotPresentException.class, () -> graph.isReachable('A', 'x'));
+	}
+
+	@Test
+	void testIsReachableAfterRandomChanges() {
+		int nodes = 90; // more than one 64-bit word per row
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(nodes, true);
+		Random random = new Random(19);
+		for (int i = 0; i < nodes / 2; i++) {
+			graph.addNode(i);
+		}
+		for (int step = 0; step < 400; step++) {
+			int operation = random.nextInt(10);
+			int a = random.nextInt(nodes);
+			int b = random.nextInt(nodes);
+			if (operation < 6) {
+				if (graph.existsNode(a) && graph.existsNode(b)) {
+					graph.addEdge(a, b, 1.0);
+				}
+			} else if (operation < 7) {
+				graph.addNode(a);
+			} else if (operation < 8) {
+				graph.addNodes(List.of(a, b));
+			} else if (operation < 9) {
+				if (graph.existsNode(a) && graph.existsNode(b)) {
+					graph.removeEdge(a, b);
+				}
+			} else {
+				graph.removeNode(a);
+			}
+			if (step % 20 == 0 && graph.existsNode(a)) {
+				Set<Integer> visited = graph.depthFirstStream(a).collect(Collectors.toSet());
+				for (int destination = 0; destination < nodes; destination++) {
+					if (graph.existsNode(destination)) {
+						assertEquals(visited.contains(destination), graph.isReachable(a, destination));
+					}
+				}
+			}
+		}
+	}
+
 }
@@ -3,6 +3,14 @@ package graph;
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleBiFunction;
+
 import org.junit.jupiter.api.Test;
 
 import graph.exceptions.ElementNotPresentException;
@@ -223,4 +231,368 @@ class DijkstraTests {
 
 	}
 
+	@Test
+	void testBinaryHeapModeMatchesLinearScan() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+		for (char origin = 'A'; origin <= 'E'; origin++) {
+			DijkstraDataClass expected = graph.dijkstra(origin, DijkstraMode.LINEAR_SCAN);
+			DijkstraDataClass actual = graph.dijkstra(origin, DijkstraMode.BINARY_HEAP);
+			assertArrayEquals(expected.getDijkstraCostsD(), actual.getDijkstraCostsD());
+			assertArrayEquals(expected.getDijkstraPathsP(), actual.getDijkstraPathsP());
+		}
+
+		MatrixGraph<Integer> random = GraphTestHelper.createRandomIntegerGraph(60, 300, 7);
+		for (int origin = 0; origin < 60; origin++) {
+			DijkstraDataClass expected = random.dijkstra(origin, DijkstraMode.LINEAR_SCAN);
+			DijkstraDataClass actual = random.dijkstra(origin, DijkstraMode.BINARY_HEAP);
+			assertArrayEquals(expected.getDijkstraCostsD(), actual.getDijkstraCostsD());
+			assertArrayEquals(expected.getDijkstraPathsP(), actual.getDijkstraPathsP());
+		}
+	}
+
+	@Test
+	void testDijkstraModeSelection() {
+		MatrixGraph<Character> graph = GraphTestHelper.createBasicTraversalCharacterGraph();
+		assertEquals(DijkstraMode.LINEAR_SCAN, graph.getDijkstraMode());
+		assertThrows(NullPointerException.class, () -> graph.setDijkstraMode(null));
+		assertThrows(NullPointerException.class, () -> graph.dijkstra('A', null));
+
+		graph.setDijkstraMode(DijkstraMode.BINARY_HEAP);
+		assertEquals(DijkstraMode.BINARY_HEAP, graph.getDijkstraMode());
+
+		DijkstraDataClass dijkstra = graph.dijkstra('D');
+		assertArrayEquals(new double[] { 31.0, 30.0, 32.0, 0.0 }, dijkstra.getDijkstraCostsD());
+		assertArrayEquals(new int[] { 1, 3, 0, NO_P }, dijkstra.getDijkstraPathsP());
+		assertEquals(32.0, graph.minimumCostPathDijkstra('D', 'C'), DELTA);
+		assertThrows(ElementNotPresentException.class, () -> graph.dijkstra('x', DijkstraMode.BINARY_HEAP));
+	}
+
+	@Test
+	void testMinimumCostPathDijkstraCache() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+		assertEquals(MatrixGraph.DEFAULT_DIJKSTRA_CACHE_CAPACITY, graph.getDijkstraCacheCapacity());
+
+		assertEquals(6.0, graph.minimumCostPathDijkstra('A', 'D'), DELTA);
+		assertEquals(9.0, graph.minimumCostPathDijkstra('A', 'E'), DELTA);
+		assertEquals(1.0, graph.minimumCostPathDijkstra('A', 'B'), DELTA);
+		assertEquals(1, graph.getDijkstraCacheMisses());
+		assertEquals(2, graph.getDijkstraCacheHits());
+
+		// Any change in the graph discards the cached results
+		long version = graph.getModificationCount();
+		graph.removeEdge('B', 'C');
+		assertTrue(graph.getModificationCount() > version);
+		assertEquals(INF, graph.minimumCostPathDijkstra('A', 'D'), DELTA);
+		assertEquals(2, graph.getDijkstraCacheMisses());
+		graph.addEdge('B', 'C', 1.0);
+		assertEquals(5.0, graph.minimumCostPathDijkstra('A', 'D'), DELTA);
+		assertEquals(3, graph.getDijkstraCacheMisses());
+
+		// Least recently used origin is evicted
+		graph.setDijkstraCacheCapacity(2);
+		graph.minimumCostPathDijkstra('B', 'D'); // miss
+		graph.minimumCostPathDijkstra('A', 'D'); // hit, B becomes the eldest
+		graph.minimumCostPathDijkstra('C', 'D'); // miss, evicts B
+		graph.minimumCostPathDijkstra('A', 'D'); // hit
+		graph.minimumCostPathDijkstra('B', 'D'); // miss
+		assertEquals(6, graph.getDijkstraCacheMisses());
+		assertEquals(4, graph.getDijkstraCacheHits());
+
+		graph.setDijkstraCacheCapacity(0);
+		assertEquals(3.0, graph.minimumCostPathDijkstra('C', 'D'), DELTA);
+		assertEquals(3.0, graph.minimumCostPathDijkstra('C', 'D'), DELTA);
+		assertEquals(8, graph.getDijkstraCacheMisses());
+		assertThrows(IllegalArgumentException.class, () -> graph.setDijkstraCacheCapacity(-1));
+	}
+
+	@Test
+	void testPointToPointDijkstra() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+
+		PathResult<Character> result = graph.pointToPointDijkstra('A', 'D');
+		assertEquals(6.0, result.getCost(), DELTA);
+		assertEquals("ABCD", result.toString());
+		assertEquals(List.of('A', 'B', 'C', 'D'), result.getPath());
+		assertTrue(result.isPathFound());
+		// A, B and C are settled before D; E is never expanded
+		assertEquals(4, result.getExpandedNodes());
+
+		result = graph.pointToPointDijkstra('A', 'B');
+		assertEquals(1.0, result.getCost(), DELTA);
+		assertEquals(2, result.getExpandedNodes());
+
+		result = graph.pointToPointDijkstra('E', 'A');
+		assertEquals(INF, result.getCost(), DELTA);
+		assertFalse(result.isPathFound());
+		assertEquals("E_NO_PATH_FOUND_TO_A", result.toString());
+
+		result = graph.pointToPointDijkstra('D', 'D');
+		assertEquals(0.0, result.getCost(), DELTA);
+		assertEquals(graph.printFloydPath('D', 'D'), result.toString());
+
+		assertThrows(ElementNotPresentException.class, () -> graph.pointToPointDijkstra('A', 'Z'));
+		assertThrows(NullPointerException.class, () -> graph.pointToPointDijkstra(null, 'A'));
+	}
+
+	@Test
+	void testBidirectionalDijkstra() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+
+		PathResult<Character> result = graph.bidirectionalDijkstra('A', 'D');
+		assertEquals(6.0, result.getCost(), DELTA);
+		assertEquals("ABCD", result.toString());
+
+		result = graph.bidirectionalDijkstra('D', 'B');
+		assertEquals(6.0, result.getCost(), DELTA);
+		assertEquals("DAB", result.toString());
+
+		result = graph.bidirectionalDijkstra('E', 'A');
+		assertEquals(INF, result.getCost(), DELTA);
+		assertEquals("E_NO_PATH_FOUND_TO_A", result.toString());
+
+		result = graph.bidirectionalDijkstra('C', 'C');
+		assertEquals(0.0, result.getCost(), DELTA);
+		assertEquals("CC", result.toString());
+
+		assertThrows(ElementNotPresentException.class, () -> graph.bidirectionalDijkstra('Z', 'A'));
+	}
+
+	@Test
+	void testPointToPointSearchesMatchDijkstra() {
+		MatrixGraph<Integer> graph = GraphTestHelper.createRandomIntegerGraph(80, 320, 11);
+		for (int origin = 0; origin < 80; origin += 7) {
+			DijkstraDataClass dijkstra = graph.dijkstra(origin);
+			for (int destination = 0; destination < 80; destination++) {
+				double expected = dijkstra.getDijkstraCostsDValue(destination);
+				PathResult<Integer> oneWay = graph.pointToPointDijkstra(origin, destination);
+				PathResult<Integer> bidirectional = graph.bidirectionalDijkstra(origin, destination);
+
+				assertEquals(expected, oneWay.getCost(), DELTA);
+				assertEquals(expected, bidirectional.getCost(), DELTA);
+				assertEquals(expected, pathCost(graph, oneWay.getPath()), DELTA);
+				assertEquals(expected, pathCost(graph, bidirectional.getPath()), DELTA);
+				assertTrue(oneWay.getExpandedNodes() <= 80);
+			}
+		}
+	}
+
+	/**
+	 * Adds up the weights of the edges of a path, or INF if it is empty.
+	 */
+	private static double pathCost(MatrixGraph<Integer> graph, List<Integer> path) {
+		if (path.isEmpty()) {
+			return MatrixGraph.INFINITY;
+		}
+		double cost = 0;
+		for (int i = 1; i < path.size(); i++) {
+			assertTrue(graph.existsEdge(path.get(i - 1), path.get(i)));
+			cost += graph.getWeight(path.get(i - 1), path.get(i));
+		}
+		return cost;
+	}
+
+	@Test
+	void testAStar() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+
+		// Without information A* behaves like the point-to-point Dijkstra
+		PathResult<Character> result = graph.aStar('A', 'D', (node, destination) -> 0.0);
+		assertEquals(6.0, result.getCost(), DELTA);
+		assertEquals("ABCD", result.toString());
+		assertEquals(graph.pointToPointDijkstra('A', 'D').getExpandedNodes(), result.getExpandedNodes());
+
+		result = graph.aStar('E', 'A', (node, destination) -> 0.0);
+		assertEquals(INF, result.getCost(), DELTA);
+		assertEquals("E_NO_PATH_FOUND_TO_A", result.toString());
+
+		assertThrows(NullPointerException.class, () -> graph.aStar('A', 'D', null));
+		assertThrows(ElementNotPresentException.class, () -> graph.aStar('A', 'Z', (node, destination) -> 0.0));
+		assertThrows(IllegalArgumentException.class, () -> graph.aStar('A', 'D', (node, destination) -> -1.0));
+	}
+
+	@Test
+	void testAStarReopensNodes() {
+		MatrixGraph<Character> graph = new MatrixGraph<Character>(4);
+		graph.addNode('S');
+		graph.addNode('A');
+		graph.addNode('B');
+		graph.addNode('G');
+		graph.addEdge('S', 'A', 4.0);
+		graph.addEdge('S', 'B', 1.0);
+		graph.addEdge('B', 'A', 1.0);
+		graph.addEdge('A', 'G', 5.0);
+
+		// Admissible but not consistent: A is expanded through S before B finds a
+		// cheaper way to it
+		PathResult<Character> result = graph.aStar('S', 'G', (node, destination) -> node == 'B' ? 3.0 : 0.0);
+		assertEquals(7.0, result.getCost(), DELTA);
+		assertEquals("SBAG", result.toString());
+		assertEquals(5, result.getExpandedNodes());
+	}
+
+	@Test
+	void testAStarOnGrid() {
+		int side = 30;
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(side * side);
+		Random random = new Random(3);
+		for (int i = 0; i < side * side; i++) {
+			graph.addNode(i);
+		}
+		for (int y = 0; y < side; y++) {
+			for (int x = 0; x < side; x++) {
+				int node = y * side + x;
+				if (x + 1 < side) {
+					graph.addEdge(node, node + 1, 1 + random.nextInt(3));
+					graph.addEdge(node + 1, node, 1 + random.nextInt(3));
+				}
+				if (y + 1 < side) {
+					graph.addEdge(node, node + side, 1 + random.nextInt(3));
+					graph.addEdge(node + side, node, 1 + random.nextInt(3));
+				}
+			}
+		}
+		// Manhattan distance never overestimates since every weight is >= 1
+		ToDoubleBiFunction<Integer, Integer> manhattan = (node, destination) -> Math
+				.abs(node % side - destination % side) + Math.abs(node / side - destination / side);
+
+		int[][] queries = { { 0, side * side - 1 }, { 35, 40 }, { 470, 130 }, { 899, 31 } };
+		for (int[] query : queries) {
+			PathResult<Integer> dijkstra = graph.pointToPointDijkstra(query[0], query[1]);
+			PathResult<Integer> aStar = graph.aStar(query[0], query[1], manhattan);
+			assertEquals(graph.minimumCostPathDijkstra(query[0], query[1]), aStar.getCost(), DELTA);
+			assertEquals(dijkstra.getCost(), pathCost(graph, aStar.getPath()), DELTA);
+			assertTrue(aStar.getExpandedNodes() <= dijkstra.getExpandedNodes());
+		}
+		assertTrue(graph.aStar(35, 40, manhattan).getExpandedNodes() < graph.pointToPointDijkstra(35, 40)
+				.getExpandedNodes());
+	}
+
+	@Test
+	void testDijkstraWorkspace() {
+		DijkstraWorkspace workspace = new DijkstraWorkspace();
+		assertThrows(IllegalStateException.class, () -> workspace.toDijkstraDataClass());
+
+		// Reused across origins and across graphs of different sizes
+		MatrixGraph<Integer> big = GraphTestHelper.createRandomIntegerGraph(70, 250, 13);
+		MatrixGraph<Character> small = GraphTestHelper.createComplexTraversalCharacterGraph();
+		for (int origin = 0; origin < 70; origin += 3) {
+			DijkstraDataClass expected = big.dijkstra(origin);
+			assertSame(workspace, big.dijkstraInto(origin, workspace));
+			assertEquals(origin, workspace.getStartingNodeIndex());
+			assertEquals(70, workspace.getNodeCount());
+			for (int i = 0; i < 70; i++) {
+				assertEquals(expected.getDijkstraCostsDValue(i), workspace.getCost(i), DELTA);
+				assertEquals(expected.getDijkstraPathsPValue(i), workspace.getPredecessor(i));
+			}
+
+			small.dijkstraInto('E', workspace);
+			assertEquals(5, workspace.getNodeCount());
+			assertEquals(0.0, workspace.getCost(4), DELTA);
+			assertEquals(INF, workspace.getCost(0), DELTA);
+			assertEquals(NO_P, workspace.getPredecessor(0));
+		}
+
+		small.dijkstraInto('A', workspace);
+		assertEquals(small.dijkstra('A').toString(), workspace.toDijkstraDataClass().toString());
+		assertThrows(IndexOutOfBoundsException.class, () -> workspace.getCost(5));
+		assertThrows(NullPointerException.class, () -> small.dijkstraInto('A', null));
+		assertThrows(ElementNotPresentException.class, () -> small.dijkstraInto('Z', workspace));
+	}
+
+	@Test
+	void testDijkstraBatch() {
+		MatrixGraph<Integer> graph = GraphTestHelper.createRandomIntegerGraph(120, 500, 19);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			graph.setParallelPool(pool);
+			List<Integer> origins = new ArrayList<Integer>();
+			for (int origin = 119; origin >= 0; origin -= 4) {
+				origins.add(origin);
+			}
+			origins.add(119); // repeated origins are computed once
+
+			for (DijkstraMode mode : DijkstraMode.values()) {
+				graph.setDijkstraMode(mode);
+				Map<Integer, DijkstraDataClass> batch = graph.dijkstraBatch(origins);
+				assertEquals(30, batch.size());
+				assertEquals(origins.subList(0, 30), new ArrayList<Integer>(batch.keySet()));
+				for (Map.Entry<Integer, DijkstraDataClass> entry : batch.entrySet()) {
+					assertEquals(graph.dijkstra(entry.getKey()).toString(), entry.getValue().toString());
+				}
+			}
+			assertTrue(graph.dijkstraBatch(List.of()).isEmpty());
+			assertThrows(ElementNotPresentException.class, () -> graph.dijkstraBatch(List.of(1, 500)));
+			assertThrows(NullPointerException.class, () -> graph.dijkstraBatch(Arrays.asList(1, null)));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void testDeltaStepping() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+		assertEquals(graph.dijkstra('A').toString(), graph.deltaStepping('A', 2.0).toString());
+		assertThrows(IllegalArgumentException.class, () -> graph.deltaStepping('A', 0.0));
+		assertThrows(IllegalArgumentException.class, () -> graph.deltaStepping('A', Double.NaN));
+		assertThrows(ElementNotPresentException.class, () -> graph.deltaStepping('Z', 1.0));
+
+		MatrixGraph<Integer> random = GraphTestHelper.createRandomIntegerGraph(600, 2400, 23);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			random.setParallelPool(pool);
+			for (double delta : new double[] { 0.5, 3.0, 1000.0 }) {
+				for (int origin = 0; origin < 600; origin += 150) {
+					DijkstraDataClass expected = random.dijkstra(origin);
+					DijkstraDataClass result = random.deltaStepping(origin, delta);
+					assertArrayEquals(expected.getDijkstraCostsD(), result.getDijkstraCostsD(), DELTA);
+					for (int node = 0; node < 600; node++) {
+						int predecessor = result.getDijkstraPathsPValue(node);
+						if (node == origin || result.getDijkstraCostsDValue(node) == INF) {
+							assertEquals(NO_P, predecessor);
+						} else {
+							assertEquals(result.getDijkstraCostsDValue(node),
+									result.getDijkstraCostsDValue(predecessor) + random.getWeight(predecessor, node),
+									DELTA);
+						}
+					}
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		// 1 + 1e17 == 1e17: nodes 1 and 2 have the same cost and reach each other
+		MatrixGraph<Integer> absorbed = new MatrixGraph<Integer>(4);
+		for (int i = 0; i < 4; i++) {
+			absorbed.addNode(i);
+		}
+		absorbed.addEdge(0, 3, 1.0);
+		absorbed.addEdge(3, 1, 1e17);
+		absorbed.addEdge(3, 2, 1e17);
+		absorbed.addEdge(1, 2, 1.0);
+		absorbed.addEdge(2, 1, 1.0);
+		DijkstraDataClass result = absorbed.deltaStepping(0, 1.0);
+		for (int node = 1; node < 4; node++) {
+			int steps = 0;
+			for (int i = node; i != 0; i = result.getDijkstraPathsPValue(i)) {
+				assertTrue(++steps <= 4, "predecessor cycle from " + node);
+			}
+		}
+		assertEquals(3, result.getDijkstraPathsPValue(1));
+		assertEquals(3, result.getDijkstraPathsPValue(2));
+
+		// Node 2 is only reached through an absorbed weight and still gets its predecessor
+		MatrixGraph<Integer> chain = new MatrixGraph<Integer>(3);
+		for (int i = 0; i < 3; i++) {
+			chain.addNode(i);
+		}
+		chain.addEdge(0, 1, 1e17);
+		chain.addEdge(1, 2, 1.0);
+		DijkstraDataClass chainResult = chain.deltaStepping(0, 1.0);
+		assertEquals(1e17, chainResult.getDijkstraCostsDValue(2));
+		assertEquals(1, chainResult.getDijkstraPathsPValue(2));
+		assertEquals(0, chainResult.getDijkstraPathsPValue(1));
+		assertEquals(chain.dijkstra(0).toString(), chainResult.toString());
+	}
+
 }
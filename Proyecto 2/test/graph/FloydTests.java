@@ -3,6 +3,12 @@ package graph;
 import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 import graph.exceptions.ElementNotPresentException;
@@ -307,4 +313,248 @@ class FloydTests {
 		assertEquals(0.0, graph.minimumCostPathFloyd('D', 'D'), DELTA);
 	}
 
+	@Test
+	void testBlockedParallelFloyd() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+		assertEquals(FloydMode.SEQUENTIAL, graph.getFloydMode());
+		assertTrue(graph.floyd());
+		double[][] expectedCosts = copy(graph.getFloydCostsA());
+		int[][] expectedPaths = copy(graph.getFloydPathsP());
+
+		// A single tile covering the whole graph is exactly the sequential algorithm
+		graph.setFloydMode(FloydMode.BLOCKED_PARALLEL);
+		assertTrue(graph.floyd());
+		assertArrayEquals(expectedCosts, graph.getFloydCostsA());
+		assertArrayEquals(expectedPaths, graph.getFloydPathsP());
+
+		graph.setFloydTileSize(2);
+		assertTrue(graph.floyd());
+		assertArrayEquals(expectedCosts, graph.getFloydCostsA());
+		assertEquals("ABCE", graph.printFloydPath('A', 'E'));
+		assertEquals(6.0, graph.minimumCostPathFloyd('A', 'D'), DELTA);
+
+		assertThrows(IllegalArgumentException.class, () -> graph.setFloydTileSize(0));
+		assertThrows(NullPointerException.class, () -> graph.setFloydMode(null));
+		assertThrows(NullPointerException.class, () -> graph.setParallelPool(null));
+	}
+
+	@Test
+	void testBlockedParallelFloydRandomGraph() {
+		MatrixGraph<Integer> graph = GraphTestHelper.createRandomIntegerGraph(150, 900, 3);
+		assertTrue(graph.floyd());
+		double[][] expectedCosts = copy(graph.getFloydCostsA());
+
+		graph.setFloydMode(FloydMode.BLOCKED_PARALLEL);
+		graph.setFloydTileSize(16); // 150 is not a multiple of 16: last tiles are partial
+		assertTrue(graph.floyd());
+		assertArrayEquals(expectedCosts, graph.getFloydCostsA());
+		for (int origin = 0; origin < 150; origin++) {
+			for (int destination = 0; destination < 150; destination++) {
+				if (expectedCosts[origin][destination] != INF) {
+					assertEquals(expectedCosts[origin][destination],
+							GraphTestHelper.floydPathCost(graph, origin, destination), DELTA);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testJohnsonFloyd() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+		graph.floyd();
+		double[][] expectedCosts = copy(graph.getFloydCostsA());
+		int[][] expectedPaths = copy(graph.getFloydPathsP());
+
+		graph.setFloydMode(FloydMode.JOHNSON);
+		assertTrue(graph.floyd());
+		assertArrayEquals(expectedCosts, graph.getFloydCostsA());
+		// Johnson stores the predecessor of the destination, which may be a
+		// different pivot of the same path
+		assertEquals(expectedPaths[0][3], graph.getFloydPathsP()[0][3]);
+		assertEquals(3, expectedPaths[2][1]);
+		assertEquals(0, graph.getFloydPathsP()[2][1]);
+		assertEquals("CDAB", graph.printFloydPath('C', 'B'));
+		assertEquals("ABCD", graph.printFloydPath('A', 'D'));
+		assertEquals("E_NO_PATH_FOUND_TO_A", graph.printFloydPath('E', 'A'));
+		assertEquals(6.0, graph.minimumCostPathFloyd('A', 'D'), DELTA);
+	}
+
+	@Test
+	void testJohnsonFloydRandomGraph() {
+		MatrixGraph<Integer> graph = GraphTestHelper.createRandomIntegerGraph(150, 600, 8);
+		assertTrue(graph.floyd());
+		double[][] expectedCosts = copy(graph.getFloydCostsA());
+
+		graph.setFloydMode(FloydMode.JOHNSON);
+		assertTrue(graph.floyd());
+		assertArrayEquals(expectedCosts, graph.getFloydCostsA());
+		for (int origin = 0; origin < 150; origin++) {
+			for (int destination = 0; destination < 150; destination++) {
+				if (expectedCosts[origin][destination] != INF) {
+					assertEquals(expectedCosts[origin][destination],
+							GraphTestHelper.floydPathCost(graph, origin, destination), DELTA);
+				}
+			}
+		}
+
+		// Incremental updates and removals keep working on Johnson's matrices
+		graph.addEdge(0, 149, 1.0);
+		assertEquals(1.0, graph.minimumCostPathFloyd(0, 149), DELTA);
+		graph.removeNode(75);
+		assertEquals(graph.minimumCostPathDijkstra(3, 7), graph.minimumCostPathFloyd(3, 7), DELTA);
+		assertFalse(new MatrixGraph<Integer>(3).floyd());
+	}
+
+	@Test
+	void testIncrementalFloydAfterAdditions() {
+		MatrixGraph<Character> graph = GraphTestHelper.createLinearCharacterGraph();
+		assertTrue(graph.floyd());
+		assertEquals(6.0, graph.minimumCostPathFloyd('A', 'D'), DELTA);
+		assertEquals(INF, graph.minimumCostPathFloyd('D', 'A'), DELTA);
+
+		// New node and edges are applied on top of the existing matrices
+		assertTrue(graph.addNode('E'));
+		assertEquals(INF, graph.minimumCostPathFloyd('A', 'E'), DELTA);
+		assertEquals(0.0, graph.minimumCostPathFloyd('E', 'E'), DELTA);
+		assertTrue(graph.addEdge('D', 'E', 1.0));
+		assertTrue(graph.addEdge('E', 'A', 1.0));
+		assertEquals(2.0, graph.minimumCostPathFloyd('D', 'A'), DELTA);
+		assertEquals("CDEAB", graph.printFloydPath('C', 'B'));
+
+		// Cheaper edge
+		assertTrue(graph.addEdge('A', 'D', 2.0));
+		assertEquals(2.0, graph.minimumCostPathFloyd('A', 'D'), DELTA);
+		assertEquals("ADE", graph.printFloydPath('A', 'E'));
+		assertTrue(graph.updateWeight('B', 'C', 0.5));
+		assertEquals(1.5, graph.minimumCostPathFloyd('A', 'C'), DELTA);
+		assertEquals("EABC", graph.printFloydPath('E', 'C'));
+
+		// Increases and removals fall back to a full recomputation
+		assertTrue(graph.updateWeight('A', 'D', 10.0));
+		assertEquals(4.5, graph.minimumCostPathFloyd('A', 'D'), DELTA);
+		assertEquals("ABCD", graph.printFloydPath('A', 'D'));
+		assertTrue(graph.removeEdge('E', 'A'));
+		assertEquals(INF, graph.minimumCostPathFloyd('D', 'A'), DELTA);
+
+		assertFalse(graph.updateWeight('D', 'A', 1.0));
+		assertThrows(IllegalArgumentException.class, () -> graph.updateWeight('A', 'B', 0.0));
+		assertThrows(ElementNotPresentException.class, () -> graph.updateWeight('A', 'X', 1.0));
+		assertThrows(IllegalArgumentException.class, () -> graph.setFloydUpdateThreshold(-1));
+	}
+
+	@Test
+	void testIncrementalFloydRandomGraph() {
+		for (int threshold : new int[] { 0, 3, MatrixGraph.DEFAULT_FLOYD_UPDATE_THRESHOLD }) {
+			MatrixGraph<Integer> graph = GraphTestHelper.createRandomIntegerGraph(40, 60, 5);
+			graph.setFloydUpdateThreshold(threshold);
+			Random random = new Random(threshold);
+			assertTrue(graph.floyd());
+			for (int round = 0; round < 20; round++) {
+				for (int change = 0; change < 4; change++) {
+					int origin = random.nextInt(40);
+					int destination = random.nextInt(40);
+					if (!graph.addEdge(origin, destination, 1 + random.nextInt(9))) {
+						graph.updateWeight(origin, destination, 0.5 + random.nextInt(3));
+					}
+				}
+				for (int origin = 0; origin < 40; origin++) {
+					DijkstraDataClass dijkstra = graph.dijkstra(origin);
+					for (int destination = 0; destination < 40; destination++) {
+						double expected = dijkstra.getDijkstraCostsDValue(destination);
+						assertEquals(expected, graph.minimumCostPathFloyd(origin, destination), DELTA);
+						if (expected != INF) {
+							assertEquals(expected, GraphTestHelper.floydPathCost(graph, origin, destination), DELTA);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void testFloydNextHopPaths() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+		assertFalse(graph.isFloydNextHops());
+		assertNull(graph.getFloydNextHops());
+		assertThrows(IllegalStateException.class, () -> graph.floydPath('A', 'D'));
+
+		graph.setFloydNextHops(true);
+		assertArrayEquals(new int[] { 0, 1, 2, 3 }, graph.floydPathIndexes('A', 'D'));
+		assertEquals(List.of('A', 'B', 'C', 'D'), graph.floydPath('A', 'D'));
+		assertEquals(List.of('D', 'E'), graph.floydPath('D', 'E'));
+		assertEquals(List.of('C'), graph.floydPath('C', 'C'));
+		assertEquals(List.of(), graph.floydPath('E', 'A'));
+		assertFalse(graph.floydPathIterator('E', 'A').hasNext());
+
+		PrimitiveIterator.OfInt iterator = graph.floydPathIterator('B', 'A');
+		int[] indexes = graph.floydPathIndexes('B', 'A');
+		for (int index : indexes) {
+			assertEquals(index, iterator.nextInt());
+		}
+		assertEquals("BCDA", graph.printFloydPath('B', 'A'));
+		assertEquals(List.of('B', 'C', 'D', 'A'), graph.floydPath('B', 'A'));
+		assertThrows(NoSuchElementException.class, () -> iterator.nextInt());
+
+		PrimitiveIterator.OfInt stale = graph.floydPathIterator('A', 'E');
+		stale.nextInt();
+		graph.addEdge('B', 'D', 1.0);
+		assertThrows(ConcurrentModificationException.class, () -> stale.nextInt());
+		// Incremental update through the new edge
+		assertEquals(List.of('A', 'B', 'D'), graph.floydPath('A', 'D'));
+
+		graph.setFloydNextHops(false);
+		assertThrows(IllegalStateException.class, () -> graph.floydPathIndexes('A', 'D'));
+	}
+
+	@Test
+	void testFloydNextHopsRandomGraph() {
+		for (FloydMode mode : FloydMode.values()) {
+			MatrixGraph<Integer> graph = GraphTestHelper.createRandomIntegerGraph(90, 300, 17);
+			graph.setFloydNextHops(true);
+			graph.setFloydMode(mode);
+			graph.setFloydTileSize(16);
+			Random random = new Random(17);
+			for (int round = 0; round < 4; round++) {
+				for (int origin = 0; origin < 90; origin += 5) {
+					DijkstraDataClass dijkstra = graph.dijkstra(origin);
+					for (int destination = 0; destination < 90; destination++) {
+						double expected = dijkstra.getDijkstraCostsDValue(destination);
+						int[] path = graph.floydPathIndexes(origin, destination);
+						if (expected == INF) {
+							assertEquals(0, path.length);
+							continue;
+						}
+						assertEquals(origin, path[0]);
+						assertEquals(destination, path[path.length - 1]);
+						double cost = 0;
+						for (int i = 1; i < path.length; i++) {
+							cost += graph.getWeight(path[i - 1], path[i]);
+						}
+						assertEquals(expected, cost, DELTA);
+					}
+				}
+				// A few new edges are applied incrementally
+				for (int i = 0; i < 5; i++) {
+					graph.addEdge(random.nextInt(90), random.nextInt(90), 1 + random.nextInt(3));
+				}
+			}
+		}
+	}
+
+	private static double[][] copy(double[][] matrix) {
+		double[][] copy = new double[matrix.length][];
+		for (int i = 0; i < matrix.length; i++) {
+			copy[i] = matrix[i].clone();
+		}
+		return copy;
+	}
+
+	private static int[][] copy(int[][] matrix) {
+		int[][] copy = new int[matrix.length][];
+		for (int i = 0; i < matrix.length; i++) {
+			copy[i] = matrix[i].clone();
+		}
+		return copy;
+	}
+
 }
@@ -2,7 +2,16 @@ package graph;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import graph.exceptions.ElementNotPresentException;
 import graph.exceptions.FullStructureException;
@@ -14,6 +23,9 @@ class GraphAdditionTests {
 	
 	private static final double DELTA = 0.0001;
 
+	@TempDir
+	Path directory;
+
 	// Constructor and Basic Structure Tests
 	@Test
 	void testConstructorAndInitialization() {
@@ -199,4 +211,338 @@ class GraphAdditionTests {
 		assertArrayEquals(expectedEdges, graph.getEdges());
 		assertArrayEquals(expectedWeights, graph.getWeights());
 	}
+
+	@Test
+	void testGrowableCapacity() {
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(2, true);
+		assertTrue(graph.isGrowable());
+		graph.addNode(0);
+		graph.addNode(1);
+		graph.addEdge(0, 1, 1.0);
+		graph.floyd();
+
+		// Chain 0 -> 1 -> ... -> 99 with Floyd kept up to date across the growth
+		for (int i = 2; i < 100; i++) {
+			assertTrue(graph.addNode(i));
+			graph.addEdge(i - 1, i, 1.0);
+		}
+		assertFalse(graph.addNode(50));
+		assertEquals(100, graph.getSize());
+		assertTrue(graph.getCapacity() >= 100);
+		assertEquals(graph.getCapacity(), graph.getWeights().length);
+		assertEquals(graph.getCapacity(), graph.getFloydCostsA().length);
+		assertEquals(99.0, graph.minimumCostPathFloyd(0, 99), DELTA);
+		assertEquals(99.0, graph.minimumCostPathDijkstra(0, 99), DELTA);
+		assertEquals(1, graph.getInDegree(99));
+
+		graph.removeNode(99);
+		graph.trimToSize();
+		assertEquals(99, graph.getCapacity());
+		assertEquals(99, graph.getEdges().length);
+		assertTrue(graph.existsEdge(97, 98));
+		assertFalse(graph.existsEdge(98, 0));
+		assertEquals(98.0, graph.minimumCostPathFloyd(0, 98), DELTA);
+
+		graph.setGrowable(false);
+		assertThrows(FullStructureException.class, () -> graph.addNode(200));
+		graph.setGrowable(true);
+		assertTrue(graph.addNode(200));
+		assertFalse(graph.existsEdge(200, 200));
+		assertTrue(graph.isIsolatedNode(200));
+
+		graph.ensureCapacity(500);
+		assertEquals(500, graph.getCapacity());
+		assertEquals(98.0, graph.minimumCostPathDijkstra(0, 98), DELTA);
+	}
+
+	@Test
+	void testBulkLoading() {
+		int nodes = 100;
+		MatrixGraph<Integer> single = GraphTestHelper.createRandomIntegerGraph(nodes, 600, 21);
+		MatrixGraph<Integer> bulk = new MatrixGraph<Integer>(10, true);
+
+		List<Integer> elements = new ArrayList<Integer>();
+		for (int i = 0; i < nodes; i++) {
+			elements.add(i);
+		}
+		elements.add(5); // repeated elements are ignored
+		assertEquals(nodes, bulk.addNodes(elements));
+		assertEquals(0, bulk.addNodes(List.of(1, 2, 3)));
+
+		// Same random edges as createRandomIntegerGraph, half as arrays and half
+		// through an iterator
+		Random random = new Random(21);
+		Integer[] origins = new Integer[300];
+		Integer[] destinations = new Integer[300];
+		double[] weights = new double[300];
+		List<Edge<Integer>> edges = new ArrayList<Edge<Integer>>();
+		for (int i = 0; i < 600; i++) {
+			int origin = random.nextInt(nodes);
+			int destination = random.nextInt(nodes);
+			double weight = 1 + random.nextInt(9);
+			if (i < 300) {
+				origins[i] = origin;
+				destinations[i] = destination;
+				weights[i] = weight;
+			} else {
+				edges.add(new Edge<Integer>(origin, destination, weight));
+			}
+		}
+		bulk.floyd();
+		assertTrue(bulk.isReachable(0, 0));
+		long version = bulk.getModificationCount();
+		int added = bulk.addEdges(origins, destinations, weights);
+		assertEquals(version + 1, bulk.getModificationCount());
+		// A large batch invalidates Floyd and the closure once instead of updating them per edge
+		assertFalse(bulk.isFloydUpToDate());
+		assertFalse(bulk.isReachabilityCalculated());
+		bulk.floyd();
+		assertTrue(bulk.isReachable(0, 0));
+		added += bulk.addEdges(edges.iterator());
+		assertTrue(added <= 600);
+		assertFalse(bulk.isReachabilityCalculated());
+
+		int existing = 0;
+		for (int origin = 0; origin < nodes; origin++) {
+			for (int destination = 0; destination < nodes; destination++) {
+				assertEquals(single.existsEdge(origin, destination), bulk.existsEdge(origin, destination));
+				if (single.existsEdge(origin, destination)) {
+					existing++;
+					assertEquals(single.getWeight(origin, destination), bulk.getWeight(origin, destination), DELTA);
+				}
+			}
+			assertEquals(single.getOutDegree(origin), bulk.getOutDegree(origin));
+			assertEquals(single.getInDegree(origin), bulk.getInDegree(origin));
+		}
+		assertEquals(existing, added);
+		assertEquals(single.minimumCostPathFloyd(0, 99), bulk.minimumCostPathFloyd(0, 99), DELTA);
+
+		// Small batches are still applied incrementally
+		assertTrue(bulk.isReachable(0, 0)); // calculates the closure again
+		bulk.addNode(100);
+		bulk.addEdges(new Integer[] { 99 }, new Integer[] { 100 }, new double[] { 2.0 });
+		assertTrue(bulk.isReachabilityCalculated());
+		assertTrue(bulk.isReachable(99, 100));
+		assertEquals(bulk.minimumCostPathFloyd(0, 99) + 2.0, bulk.minimumCostPathFloyd(0, 100), DELTA);
+	}
+
+	@Test
+	void testBulkLoadingValidatesFirst() {
+		MatrixGraph<Character> graph = GraphTestHelper.createCharacterGraphWithIsolatedNodes();
+		long version = graph.getModificationCount();
+
+		assertThrows(NullPointerException.class, () -> graph.addNodes(Arrays.asList('E', null)));
+		assertThrows(FullStructureException.class, () -> graph.addNodes(List.of('E', 'F', 'G')));
+		assertThrows(ElementNotPresentException.class,
+				() -> graph.addEdges(new Character[] { 'A', 'Z' }, new Character[] { 'B', 'A' }, new double[] { 1, 1 }));
+		assertThrows(IllegalArgumentException.class,
+				() -> graph.addEdges(new Character[] { 'A', 'B' }, new Character[] { 'B', 'A' }, new double[] { 1, 0 }));
+		assertThrows(IllegalArgumentException.class,
+				() -> graph.addEdges(new Character[] { 'A' }, new Character[] { 'B', 'A' }, new double[] { 1, 1 }));
+		assertThrows(ElementNotPresentException.class, () -> graph
+				.addEdges(List.of(new Edge<Character>('A', 'B', 1.0), new Edge<Character>('A', 'Z', 1.0)).iterator()));
+
+		assertEquals(version, graph.getModificationCount());
+		assertEquals(4, graph.getSize());
+		assertFalse(graph.existsEdge('A', 'B'));
+		assertEquals(0, graph.getOutDegree('A'));
+	}
+
+	@Test
+	void testLeanStorage() {
+		MatrixGraph<Integer> standard = new MatrixGraph<Integer>(4, true);
+		MatrixGraph<Integer> lean = new MatrixGraph<Integer>(4, true, MatrixStorage.LEAN);
+		MatrixGraph<Integer> leanFloat = new MatrixGraph<Integer>(4, true, MatrixStorage.LEAN_FLOAT);
+		assertThrows(NullPointerException.class, () -> new MatrixGraph<Integer>(4, true, null));
+		assertEquals(MatrixStorage.STANDARD, standard.getStorage());
+		assertNotNull(standard.getFloydCostsA());
+		assertNull(lean.getFloydCostsA());
+		assertNull(leanFloat.getFloydPathsP());
+
+		Random random = new Random(20);
+		List<MatrixGraph<Integer>> graphs = List.of(standard, lean, leanFloat);
+		for (int step = 0; step < 600; step++) {
+			int operation = random.nextInt(10);
+			int a = random.nextInt(40);
+			int b = random.nextInt(40);
+			double weight = 1 + random.nextInt(20) * 0.5; // exact in float
+			for (MatrixGraph<Integer> graph : graphs) {
+				if (operation < 3) {
+					graph.addNode(a);
+				} else if (operation < 8) {
+					if (graph.existsNode(a) && graph.existsNode(b)) {
+						graph.addEdge(a, b, weight);
+						graph.updateWeight(a, b, weight);
+					}
+				} else if (operation < 9) {
+					if (graph.existsNode(a) && graph.existsNode(b)) {
+						graph.removeEdge(a, b);
+					}
+				} else {
+					graph.removeNode(a);
+				}
+			}
+		}
+		for (MatrixGraph<Integer> graph : List.of(lean, leanFloat)) {
+			assertEquals(standard.getSize(), graph.getSize());
+			assertEquals(standard.getCapacity(), graph.getCapacity());
+			for (int i = 0; i < standard.getSize(); i++) {
+				for (int j = 0; j < standard.getSize(); j++) {
+					assertEquals(standard.getWeights()[i][j], graph.getWeights()[i][j], DELTA);
+				}
+			}
+			assertTrue(graph.floyd());
+			assertEquals(graph.getCapacity(), graph.getFloydCostsA().length);
+			for (int origin = 0; origin < 40; origin++) {
+				if (standard.existsNode(origin)) {
+					assertArrayEquals(standard.dijkstra(origin).getDijkstraCostsD(),
+							graph.dijkstra(origin).getDijkstraCostsD(), DELTA);
+				}
+			}
+		}
+		standard.floyd();
+		for (int i = 0; i < 40; i++) {
+			for (int j = 0; j < 40; j++) {
+				if (standard.existsNode(i) && standard.existsNode(j)) {
+					assertEquals(standard.minimumCostPathFloyd(i, j), lean.minimumCostPathFloyd(i, j), DELTA);
+					assertEquals(standard.minimumCostPathFloyd(i, j), leanFloat.minimumCostPathFloyd(i, j), DELTA);
+				}
+			}
+		}
+
+		// Float weights lose precision beyond ~7 digits
+		leanFloat.addNodes(List.of(100, 101));
+		leanFloat.addEdge(100, 101, 0.1);
+		assertEquals(0.1, leanFloat.getWeight(100, 101), 1e-7);
+		assertNotEquals(0.1, leanFloat.getWeight(100, 101));
+	}
+
+	@Test
+	void testLeanFloatWeightRange() {
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(3, false, MatrixStorage.LEAN_FLOAT);
+		graph.addNode(1);
+		graph.addNode(2);
+		// 1e-50 would become 0.0f and 1e40 would become +Infinity
+		assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 2, 1e-50));
+		assertThrows(IllegalArgumentException.class, () -> graph.addEdge(1, 2, 1e40));
+		assertThrows(IllegalArgumentException.class,
+				() -> graph.addEdges(List.of(new Edge<Integer>(1, 2, 1.0), new Edge<Integer>(2, 1, 1e-50)).iterator()));
+		assertFalse(graph.existsEdge(1, 2));
+		assertFalse(graph.existsEdge(2, 1));
+		assertTrue(graph.addEdge(1, 2, Float.MIN_VALUE));
+		assertTrue(graph.addEdge(2, 1, Float.MAX_VALUE));
+		assertThrows(IllegalArgumentException.class, () -> graph.updateWeight(1, 2, 1e-50));
+		assertThrows(IllegalArgumentException.class, () -> graph.updateWeight(2, 1, 1e40));
+		assertEquals(Float.MIN_VALUE, graph.getWeight(1, 2));
+		assertEquals(Float.MAX_VALUE, graph.getWeight(2, 1));
+		assertTrue(graph.minimumCostPathFloyd(2, 1) < MatrixGraph.INFINITY);
+
+		// Doubles are not restricted in the other modes
+		MatrixGraph<Integer> lean = new MatrixGraph<Integer>(3, false, MatrixStorage.LEAN);
+		lean.addNode(1);
+		lean.addNode(2);
+		assertTrue(lean.addEdge(1, 2, 1e-50));
+		assertEquals(1e-50, lean.getWeight(1, 2));
+	}
+
+	@Test
+	void testLeanNextHopsAllocatedLazily() {
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(2, true, MatrixStorage.LEAN);
+		graph.setFloydNextHops(true);
+		assertTrue(graph.isFloydNextHops());
+		assertNull(graph.getFloydNextHops());
+		for (int i = 0; i < 10; i++) {
+			graph.addNode(i);
+		}
+		assertNull(graph.getFloydNextHops()); // growing does not reserve it either
+		graph.addEdge(0, 5, 1.0);
+		graph.addEdge(5, 9, 1.0);
+		assertEquals(List.of(0, 5, 9), graph.floydPath(0, 9));
+		assertEquals(graph.getCapacity(), graph.getFloydNextHops().length);
+
+		// Once calculated, growing keeps the matrix up to date
+		for (int i = 10; i < 40; i++) {
+			graph.addNode(i);
+		}
+		assertEquals(List.of(0, 5, 9), graph.floydPath(0, 9));
+		graph.setFloydNextHops(false);
+		assertNull(graph.getFloydNextHops());
+		assertThrows(IllegalStateException.class, () -> graph.floydPath(0, 9));
+	}
+
+	@Test
+	void testOffHeapStorage() throws IOException {
+		MatrixGraph<Integer> standard = new MatrixGraph<Integer>(4, true);
+		MatrixGraph<Integer> direct = new MatrixGraph<Integer>(4, true, MatrixStorage.OFF_HEAP);
+		Path file = directory.resolve("weights.bin");
+		MatrixGraph<Integer> mapped = MatrixGraph.fileBacked(4, true, file);
+		assertEquals(MatrixStorage.OFF_HEAP, mapped.getStorage());
+		assertNull(direct.getFloydCostsA());
+		assertThrows(IllegalArgumentException.class, () -> MatrixGraph.fileBacked(0, true, file));
+
+		Random random = new Random(25);
+		List<MatrixGraph<Integer>> graphs = List.of(standard, direct, mapped);
+		for (int step = 0; step < 600; step++) {
+			int operation = random.nextInt(10);
+			int a = random.nextInt(40);
+			int b = random.nextInt(40);
+			double weight = 0.1 + random.nextInt(20) * 0.3;
+			for (MatrixGraph<Integer> graph : graphs) {
+				if (operation < 3) {
+					graph.addNode(a);
+				} else if (operation < 8) {
+					if (graph.existsNode(a) && graph.existsNode(b)) {
+						graph.addEdge(a, b, weight);
+						graph.updateWeight(a, b, weight);
+					}
+				} else if (operation < 9) {
+					if (graph.existsNode(a) && graph.existsNode(b)) {
+						graph.removeEdge(a, b);
+					}
+				} else {
+					graph.removeNode(a);
+				}
+			}
+		}
+		standard.floyd();
+		for (MatrixGraph<Integer> graph : List.of(direct, mapped)) {
+			assertEquals(standard.getCapacity(), graph.getCapacity());
+			for (int i = 0; i < standard.getSize(); i++) {
+				assertArrayEquals(Arrays.copyOf(standard.getWeights()[i], standard.getSize()),
+						Arrays.copyOf(graph.getWeights()[i], standard.getSize()));
+			}
+			for (int i = 0; i < 40; i++) {
+				for (int j = 0; j < 40; j++) {
+					if (standard.existsNode(i) && standard.existsNode(j)) {
+						assertEquals(standard.getWeight(i, j), graph.getWeight(i, j));
+						assertEquals(standard.minimumCostPathFloyd(i, j), graph.minimumCostPathFloyd(i, j), DELTA);
+					}
+				}
+			}
+		}
+		// Each resize maps the new matrix after the previous one
+		assertTrue(Files.size(file) >= 8L * mapped.getCapacity() * mapped.getCapacity());
+	}
+
+	@Test
+	void testOffHeapChunks() {
+		// 4 rows of 12 per chunk here, 3 rows of 16 in the copy
+		OffHeapWeightMatrix matrix = new OffHeapWeightMatrix(12, 16 * 8 * 3, null, 0);
+		for (int i = 0; i < 12; i++) {
+			for (int j = 0; j < 12; j++) {
+				matrix.set(i, j, i * 12 + j);
+			}
+		}
+		matrix.clear(7, 2, 5);
+		WeightMatrix copy = matrix.copyOf(16, 10);
+		double[][] array = copy.toArray();
+		for (int i = 0; i < 16; i++) {
+			for (int j = 0; j < 16; j++) {
+				double expected = i < 10 && j < 10 && !(i == 7 && j >= 2 && j < 5) ? i * 12 + j : 0;
+				assertEquals(expected, copy.get(i, j));
+				assertEquals(expected, array[i][j]);
+			}
+		}
+		assertThrows(IllegalArgumentException.class, () -> new OffHeapWeightMatrix(20, 100, null, 0));
+	}
 }
@@ -0,0 +1,192 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GraphFilesTests {
+
+	private static final double DELTA = 0.0001;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testMatrixGraphRoundTrip() throws IOException {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+		graph.floyd();
+		Path file = directory.resolve("graph.bin");
+		GraphFiles.write(graph, file, ElementCodec.CHARACTER, true);
+
+		MatrixGraph<Character> loaded = GraphFiles.readMatrixGraph(file, ElementCodec.CHARACTER);
+		assertEquals(graph.getSize(), loaded.getSize());
+		assertTrue(loaded.isFloydUpToDate()); // Floyd comes from the file
+		for (char origin = 'A'; origin <= 'E'; origin++) {
+			assertEquals(graph.getOutDegree(origin), loaded.getOutDegree(origin));
+			assertEquals(graph.getInDegree(origin), loaded.getInDegree(origin));
+			assertEquals(graph.printDepthFirstTraversal(origin), loaded.printDepthFirstTraversal(origin));
+			for (char destination = 'A'; destination <= 'E'; destination++) {
+				assertEquals(graph.existsEdge(origin, destination), loaded.existsEdge(origin, destination));
+				assertEquals(graph.getWeight(origin, destination), loaded.getWeight(origin, destination), DELTA);
+				assertEquals(graph.minimumCostPathFloyd(origin, destination),
+						loaded.minimumCostPathFloyd(origin, destination), DELTA);
+				assertEquals(graph.printFloydPath(origin, destination), loaded.printFloydPath(origin, destination));
+			}
+		}
+
+		// The loaded graph is an ordinary growable graph
+		assertTrue(loaded.addNode('F'));
+		assertTrue(loaded.addEdge('E', 'F', 1.0));
+		assertTrue(loaded.isReachable('E', 'F'));
+
+		GraphFiles.write(graph, file, ElementCodec.CHARACTER, false);
+		assertFalse(GraphFiles.readMatrixGraph(file, ElementCodec.CHARACTER).isFloydUpToDate());
+	}
+
+	@Test
+	void testSnapshotRoundTrip() throws IOException {
+		SparseGraph<String> graph = new SparseGraph<String>();
+		Random random = new Random(23);
+		int nodes = 300;
+		for (int i = 0; i < nodes; i++) {
+			graph.addNode("node-" + i + "-ñ");
+		}
+		for (int i = 0; i < 5 * nodes; i++) {
+			graph.addEdge("node-" + random.nextInt(nodes) + "-ñ", "node-" + random.nextInt(nodes) + "-ñ",
+					0.5 + random.nextInt(10));
+		}
+		GraphSnapshot<String> snapshot = graph.freeze();
+		Path file = directory.resolve("sparse.bin");
+		GraphFiles.write(snapshot, file, ElementCodec.STRING);
+
+		GraphSnapshot<String> loaded = GraphFiles.readSnapshot(file, ElementCodec.STRING);
+		assertEquals(snapshot.getSize(), loaded.getSize());
+		assertEquals(snapshot.getEdgeCount(), loaded.getEdgeCount());
+		for (int i = 0; i < nodes; i += 7) {
+			String origin = "node-" + i + "-ñ";
+			assertEquals(snapshot.getNodeIndex(origin), loaded.getNodeIndex(origin));
+			assertArrayEquals(graph.dijkstra(origin).getDijkstraCostsD(), loaded.dijkstra(origin).getDijkstraCostsD(),
+					DELTA);
+		}
+
+		MatrixGraph<String> matrix = GraphFiles.readMatrixGraph(file, ElementCodec.STRING, MatrixStorage.LEAN);
+		assertEquals(MatrixStorage.LEAN, matrix.getStorage());
+		assertEquals(nodes, matrix.getCapacity());
+		assertEquals(graph.minimumCostPathFloyd("node-0-ñ", "node-1-ñ"),
+				matrix.minimumCostPathFloyd("node-0-ñ", "node-1-ñ"), DELTA);
+	}
+
+	@Test
+	void testInvalidFiles() throws IOException {
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(3);
+		graph.addNode(1);
+		graph.addNode(2);
+		graph.addEdge(1, 2, 3.0);
+		Path file = directory.resolve("small.bin");
+		GraphFiles.write(graph, file, ElementCodec.INTEGER, true);
+		byte[] bytes = Files.readAllBytes(file);
+
+		Path truncated = directory.resolve("truncated.bin");
+		Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 3));
+		assertThrows(IOException.class, () -> GraphFiles.readMatrixGraph(truncated, ElementCodec.INTEGER));
+
+		Path wrongMagic = directory.resolve("magic.bin");
+		byte[] copy = bytes.clone();
+		copy[0] ^= 1;
+		Files.write(wrongMagic, copy);
+		assertThrows(IOException.class, () -> GraphFiles.readSnapshot(wrongMagic, ElementCodec.INTEGER));
+
+		// The target of the only edge points outside the node table
+		Path badEdge = directory.resolve("edge.bin");
+		copy = bytes.clone();
+		int targetOffset = 4 * 5 + 8 * 2 + 4 * 2 + 4 * 3;
+		copy[targetOffset + 3] = 7;
+		Files.write(badEdge, copy);
+		assertThrows(IOException.class, () -> GraphFiles.readSnapshot(badEdge, ElementCodec.INTEGER));
+
+		// Huge counts in the header are rejected before allocating anything
+		for (int[] counts : new int[][] { { Integer.MAX_VALUE, 1 }, { 2, Integer.MAX_VALUE - 8 }, { 50000, 1 } }) {
+			Path hugeCounts = directory.resolve("counts.bin");
+			copy = bytes.clone();
+			ByteBuffer.wrap(copy).putInt(12, counts[0]).putInt(16, counts[1]);
+			Files.write(hugeCounts, copy);
+			assertThrows(IOException.class, () -> GraphFiles.readSnapshot(hugeCounts, ElementCodec.INTEGER));
+			assertThrows(IOException.class, () -> GraphFiles.readMatrixGraph(hugeCounts, ElementCodec.INTEGER));
+		}
+
+		assertThrows(NullPointerException.class, () -> GraphFiles.readSnapshot(file, null));
+	}
+
+	@Test
+	void testFloydFiles() throws IOException {
+		MatrixGraph<Integer> graph = randomGraph(80, 24);
+		Path file = directory.resolve("floyd.bin");
+		assertTrue(GraphFiles.writeFloyd(graph, file));
+		assertFalse(GraphFiles.writeFloyd(new MatrixGraph<Integer>(1), directory.resolve("empty.bin")));
+
+		// A restarted process rebuilds the same graph and reuses the matrices
+		MatrixGraph<Integer> restarted = randomGraph(80, 24);
+		assertFalse(restarted.isFloydUpToDate());
+		assertTrue(GraphFiles.readFloyd(restarted, file));
+		assertTrue(restarted.isFloydUpToDate());
+		for (int i = 0; i < 80; i++) {
+			for (int j = 0; j < 80; j++) {
+				assertEquals(graph.minimumCostPathFloyd(i, j), restarted.minimumCostPathFloyd(i, j), DELTA);
+				assertEquals(graph.printFloydPath(i, j), restarted.printFloydPath(i, j));
+			}
+		}
+
+		// Any change in the structure falls back to recomputing
+		MatrixGraph<Integer> different = randomGraph(80, 25);
+		assertFalse(GraphFiles.readFloyd(different, file));
+		assertTrue(different.isFloydUpToDate());
+		assertEquals(randomGraph(80, 25).minimumCostPathFloyd(0, 79), different.minimumCostPathFloyd(0, 79), DELTA);
+
+		MatrixGraph<Integer> heavier = randomGraph(80, 24);
+		heavier.addEdge(0, 79, 0.25);
+		assertFalse(GraphFiles.readFloyd(heavier, file));
+		assertEquals(0.25, heavier.minimumCostPathFloyd(0, 79), DELTA);
+
+		// Not a Floyd file or truncated: recomputed as well
+		Path graphFile = directory.resolve("graph.bin");
+		GraphFiles.write(graph, graphFile, ElementCodec.INTEGER, false);
+		assertFalse(GraphFiles.readFloyd(randomGraph(80, 24), graphFile));
+		Path truncated = directory.resolve("truncated.bin");
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+		MatrixGraph<Integer> fromTruncated = randomGraph(80, 24);
+		assertFalse(GraphFiles.readFloyd(fromTruncated, truncated));
+		assertEquals(graph.minimumCostPathFloyd(0, 79), fromTruncated.minimumCostPathFloyd(0, 79), DELTA);
+
+		// Next hops cannot be restored from the file
+		MatrixGraph<Integer> withNextHops = randomGraph(80, 24);
+		withNextHops.setFloydNextHops(true);
+		assertFalse(GraphFiles.readFloyd(withNextHops, file));
+		assertEquals(graph.minimumCostPathFloyd(0, 79), withNextHops.minimumCostPathFloyd(0, 79), DELTA);
+		assertEquals(graph.minimumCostPathFloyd(0, 79) != MatrixGraph.INFINITY,
+				!withNextHops.floydPath(0, 79).isEmpty());
+	}
+
+	/**
+	 * Builds the same random graph for the same seed
+	 */
+	private static MatrixGraph<Integer> randomGraph(int nodes, long seed) {
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(nodes + 10);
+		Random random = new Random(seed);
+		for (int i = 0; i < nodes; i++) {
+			graph.addNode(i);
+		}
+		for (int i = 0; i < 4 * nodes; i++) {
+			graph.addEdge(random.nextInt(nodes), random.nextInt(nodes), 1 + random.nextInt(20));
+		}
+		return graph;
+	}
+}
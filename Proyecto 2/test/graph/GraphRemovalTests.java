@@ -1,6 +1,8 @@
 package graph;
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 import graph.exceptions.ElementNotPresentException;
@@ -149,4 +151,145 @@ class GraphRemovalTests {
 		assertFalse(edgeTestGraph.existsEdge('C', 'B'));
 		assertFalse(edgeTestGraph.existsEdge('D', 'B'));
 	}
+
+	@Test
+	void testNodeIndexAfterSwapRemoval() {
+		MatrixGraph<Character> graph = GraphTestHelper.createCyclicCharacterGraph();
+		assertEquals(2, graph.getNodeIndex('C'));
+		assertEquals(4, graph.getNodeIndex('E'));
+
+		// E (last) is moved into the slot left by C
+		assertTrue(graph.removeNode('C'));
+		assertEquals(INDEX_NOT_FOUND, graph.getNodeIndex('C'));
+		assertEquals(2, graph.getNodeIndex('E'));
+		assertEquals(3, graph.getNodeIndex('D'));
+		assertTrue(graph.existsEdge('E', 'A'));
+		assertTrue(graph.existsEdge('D', 'E'));
+
+		// Removing the last node does not move anything
+		assertTrue(graph.removeNode('D'));
+		assertEquals(INDEX_NOT_FOUND, graph.getNodeIndex('D'));
+		assertEquals(2, graph.getNodeIndex('E'));
+
+		// Re-added nodes take the first free slot
+		assertTrue(graph.addNode('C'));
+		assertEquals(3, graph.getNodeIndex('C'));
+		assertFalse(graph.existsEdge('C', 'C'));
+		assertFalse(graph.existsEdge('E', 'C'));
+	}
+
+	@Test
+	void testDegreesAfterRandomChanges() {
+		// More than 64 nodes so that rows span several bitset words
+		int capacity = 150;
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(capacity);
+		Random random = new Random(5);
+		for (int operation = 0; operation < 5000; operation++) {
+			int a = random.nextInt(capacity);
+			int b = random.nextInt(capacity);
+			int kind = random.nextInt(10);
+			if (kind < 2) {
+				if (graph.getSize() < capacity) {
+					graph.addNode(a);
+				}
+			} else if (kind == 2) {
+				graph.removeNode(a);
+			} else if (graph.existsNode(a) && graph.existsNode(b)) {
+				if (kind < 7) {
+					graph.addEdge(a, b, 1 + random.nextInt(5));
+				} else {
+					graph.removeEdge(a, b);
+				}
+			}
+		}
+
+		boolean[][] edges = graph.getEdges();
+		for (int node = 0; node < capacity; node++) {
+			if (!graph.existsNode(node)) {
+				continue;
+			}
+			int i = graph.getNodeIndex(node);
+			int out = 0;
+			int in = 0;
+			for (int j = 0; j < graph.getSize(); j++) {
+				out += edges[i][j] ? 1 : 0;
+				in += edges[j][i] ? 1 : 0;
+			}
+			assertEquals(out, graph.getOutDegree(node));
+			assertEquals(in, graph.getInDegree(node));
+			assertEquals(out > 0 && in == 0, graph.isSourceNode(node));
+			assertEquals(out == 0 && in > 0, graph.isDrainNode(node));
+			assertEquals(out == 0 && in == 0, graph.isIsolatedNode(node));
+		}
+	}
+
+	@Test
+	void testStableHandles() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+		int a = graph.handleOf('A');
+		int b = graph.handleOf('B');
+		int c = graph.handleOf('C');
+		int d = graph.handleOf('D');
+		int e = graph.handleOf('E');
+		assertEquals(MatrixGraph.NO_HANDLE, graph.handleOf('Z'));
+		assertEquals('C', graph.elementOf(c));
+		assertTrue(graph.existsEdgeByHandle(c, d));
+		assertEquals(3.0, graph.getWeightByHandle(c, d), DELTA);
+
+		// Removing B moves E into its index, but the handles do not change
+		graph.removeNode('B');
+		assertEquals(1, graph.getNodeIndex('E'));
+		assertEquals(e, graph.handleOf('E'));
+		assertEquals('E', graph.elementOf(e));
+		assertTrue(graph.existsEdgeByHandle(d, e));
+		assertEquals(4.0, graph.getWeightByHandle(d, e), DELTA);
+		assertEquals(MatrixGraph.WEIGHT_NOT_FOUND, graph.getWeightByHandle(e, d), DELTA);
+		assertThrows(ElementNotPresentException.class, () -> graph.elementOf(b));
+		assertThrows(ElementNotPresentException.class, () -> graph.existsEdgeByHandle(a, b));
+		assertThrows(ElementNotPresentException.class, () -> graph.getWeightByHandle(-1, a));
+
+		// The freed handle is reused by the next node
+		graph.addNode('F');
+		assertEquals(b, graph.handleOf('F'));
+		assertTrue(graph.addEdgeByHandle(b, a, 2.0));
+		assertFalse(graph.addEdgeByHandle(b, a, 3.0));
+		assertTrue(graph.existsEdge('F', 'A'));
+		assertThrows(IllegalArgumentException.class, () -> graph.addEdgeByHandle(a, b, 0.0));
+
+		DijkstraDataClass dijkstra = graph.dijkstraByHandle(c);
+		assertEquals(graph.getHandleBound(), dijkstra.getDijkstraCostsD().length);
+		assertEquals(graph.minimumCostPathDijkstra('C', 'E'), dijkstra.getDijkstraCostsDValue(e), DELTA);
+		assertEquals(3.0, dijkstra.getDijkstraCostsDValue(d), DELTA);
+		assertEquals(c, dijkstra.getDijkstraPathsPValue(d));
+		assertEquals(MatrixGraph.INFINITY, dijkstra.getDijkstraCostsDValue(b), DELTA);
+	}
+
+	@Test
+	void testHandlesAfterRandomChanges() {
+		int capacity = 40;
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(10, true);
+		int[] handles = new int[capacity];
+		Random random = new Random(9);
+		for (int operation = 0; operation < 3000; operation++) {
+			int node = random.nextInt(capacity);
+			if (random.nextInt(3) > 0) {
+				if (graph.addNode(node)) {
+					handles[node] = graph.handleOf(node);
+				}
+			} else {
+				graph.removeNode(node);
+			}
+			if (operation % 500 == 0) {
+				graph.trimToSize();
+			}
+			for (int i = 0; i < capacity; i++) {
+				if (graph.existsNode(i)) {
+					assertEquals(handles[i], graph.handleOf(i));
+					assertEquals(i, graph.elementOf(handles[i]));
+					assertTrue(handles[i] < graph.getHandleBound());
+				}
+			}
+		}
+		assertTrue(graph.getHandleBound() <= capacity);
+	}
 }
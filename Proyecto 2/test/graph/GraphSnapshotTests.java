@@ -0,0 +1,125 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import graph.exceptions.ElementNotPresentException;
+
+class GraphSnapshotTests {
+
+	private static final double DELTA = 0.0001;
+
+	@Test
+	void testSnapshotMatchesGraph() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+		GraphSnapshot<Character> snapshot = graph.freeze();
+
+		assertEquals(graph.getSize(), snapshot.getSize());
+		assertEquals(graph.getModificationCount(), snapshot.getVersion());
+		for (char origin = 'A'; origin <= 'E'; origin++) {
+			assertTrue(snapshot.existsNode(origin));
+			assertEquals(graph.getNodeIndex(origin), snapshot.getNodeIndex(origin));
+			assertEquals(origin, snapshot.getNode(snapshot.getNodeIndex(origin)));
+			assertEquals(graph.getOutDegree(origin), snapshot.getOutDegree(origin));
+			assertEquals(graph.printDepthFirstTraversal(origin), snapshot.printDepthFirstTraversal(origin));
+			DijkstraDataClass expected = graph.dijkstra(origin);
+			DijkstraDataClass actual = snapshot.dijkstra(origin);
+			assertArrayEquals(expected.getDijkstraCostsD(), actual.getDijkstraCostsD(), DELTA);
+			assertArrayEquals(expected.getDijkstraPathsP(), actual.getDijkstraPathsP());
+			for (char destination = 'A'; destination <= 'E'; destination++) {
+				assertEquals(graph.existsEdge(origin, destination), snapshot.existsEdge(origin, destination));
+				assertEquals(graph.getWeight(origin, destination), snapshot.getWeight(origin, destination), DELTA);
+				assertEquals(graph.isReachable(origin, destination), snapshot.isReachable(origin, destination));
+				assertEquals(graph.minimumCostPathDijkstra(origin, destination),
+						snapshot.minimumCostPathDijkstra(origin, destination), DELTA);
+			}
+		}
+
+		assertFalse(snapshot.existsNode('Z'));
+		assertFalse(snapshot.existsEdge('A', 'Z'));
+		assertEquals(GraphSnapshot.INDEX_NOT_FOUND, snapshot.getNodeIndex('Z'));
+		assertThrows(NullPointerException.class, () -> snapshot.existsNode(null));
+		assertThrows(ElementNotPresentException.class, () -> snapshot.dijkstra('Z'));
+		assertThrows(IndexOutOfBoundsException.class, () -> snapshot.getNode(5));
+	}
+
+	@Test
+	void testKeysSharingLowBits() {
+		// Multiples of 1024 below 2^16: the hashes only differ in their high bits
+		SparseGraph<Integer> graph = new SparseGraph<Integer>();
+		for (int i = 0; i < 64; i++) {
+			graph.addNode(i * 1024);
+		}
+		for (int i = 0; i + 1 < 64; i++) {
+			graph.addEdge(i * 1024, (i + 1) * 1024, 1.0);
+		}
+		GraphSnapshot<Integer> snapshot = graph.freeze();
+		assertTrue(snapshot.longestProbe() <= 8, "probe length " + snapshot.longestProbe());
+		for (int i = 0; i < 64; i++) {
+			assertEquals(i * 1024, (int) snapshot.getNode(snapshot.getNodeIndex(i * 1024)));
+		}
+		assertFalse(snapshot.existsNode(512));
+		assertEquals(63.0, snapshot.minimumCostPathDijkstra(0, 63 * 1024), DELTA);
+
+		SparseGraph<Long> longs = new SparseGraph<Long>();
+		for (long i = 0; i < 200; i++) {
+			longs.addNode(i << 20);
+		}
+		GraphSnapshot<Long> longSnapshot = longs.freeze();
+		assertTrue(longSnapshot.longestProbe() <= 8, "probe length " + longSnapshot.longestProbe());
+		for (long i = 0; i < 200; i++) {
+			assertTrue(longSnapshot.existsNode(i << 20));
+		}
+	}
+
+	@Test
+	void testSnapshotIsIndependentOfLiveGraph() {
+		MatrixGraph<Character> graph = GraphTestHelper.createComplexTraversalCharacterGraph();
+		GraphSnapshot<Character> snapshot = graph.freeze();
+		String traversal = snapshot.printDepthFirstTraversal('A');
+		int edges = snapshot.getEdgeCount();
+
+		graph.removeNode('B');
+		graph.addNode('F');
+		graph.addEdge('A', 'F', 1.0);
+
+		assertTrue(snapshot.existsNode('B'));
+		assertFalse(snapshot.existsNode('F'));
+		assertEquals(traversal, snapshot.printDepthFirstTraversal('A'));
+		assertEquals(edges, snapshot.getEdgeCount());
+
+		GraphSnapshot<Character> republished = graph.freeze();
+		assertFalse(republished.existsNode('B'));
+		assertTrue(republished.existsEdge('A', 'F'));
+		assertTrue(republished.getVersion() > snapshot.getVersion());
+	}
+
+	@Test
+	void testSnapshotSharedAcrossThreads() {
+		int nodes = 200;
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(nodes);
+		Random random = new Random(22);
+		for (int i = 0; i < nodes; i++) {
+			graph.addNode(i * 7); // keys that collide in small tables
+		}
+		for (int i = 0; i < 4 * nodes; i++) {
+			graph.addEdge(random.nextInt(nodes) * 7, random.nextInt(nodes) * 7, 1 + random.nextInt(9));
+		}
+		GraphSnapshot<Integer> snapshot = graph.freeze();
+		double[][] expected = new double[nodes][];
+		for (int i = 0; i < nodes; i++) {
+			expected[i] = graph.dijkstra(i * 7).getDijkstraCostsD();
+		}
+
+		IntStream.range(0, nodes).parallel().forEach(i -> {
+			assertArrayEquals(expected[i], snapshot.dijkstra(i * 7).getDijkstraCostsD(), DELTA);
+			for (int j = 0; j < nodes; j += 13) {
+				assertEquals(expected[i][j] != MatrixGraph.INFINITY, snapshot.isReachable(i * 7, j * 7));
+			}
+		});
+	}
+}
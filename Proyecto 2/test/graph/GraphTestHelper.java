@@ -1,5 +1,7 @@
 package graph;
 
+import java.util.Random;
+
 public class GraphTestHelper {
 
 	public static MatrixGraph<Character> createCharacterGraphWithIsolatedNodes() {
@@ -83,4 +85,32 @@ public class GraphTestHelper {
 		return graph;
 	}
 
+	public static MatrixGraph<Integer> createRandomIntegerGraph(int nodes, int edges, long seed) {
+		MatrixGraph<Integer> graph = new MatrixGraph<Integer>(nodes);
+		Random random = new Random(seed);
+		for (int i = 0; i < nodes; i++) {
+			graph.addNode(i);
+		}
+		for (int i = 0; i < edges; i++) {
+			// Integer weights so that equal-cost paths (ties) appear often
+			graph.addEdge(random.nextInt(nodes), random.nextInt(nodes), 1 + random.nextInt(9));
+		}
+		return graph;
+	}
+
+	/**
+	 * Rebuilds the Floyd path between two indexes from floydPathsP and adds up the
+	 * weights of its edges.
+	 */
+	public static double floydPathCost(MatrixGraph<?> graph, int origin, int destination) {
+		if (origin == destination) {
+			return 0.0;
+		}
+		int pivot = graph.getFloydPathsP()[origin][destination];
+		if (pivot == MatrixGraph.EMPTY) {
+			return graph.getWeights()[origin][destination];
+		}
+		return floydPathCost(graph, origin, pivot) + floydPathCost(graph, pivot, destination);
+	}
+
 }
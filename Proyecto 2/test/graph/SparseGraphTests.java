@@ -0,0 +1,154 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import graph.exceptions.ElementNotPresentException;
+
+class SparseGraphTests {
+
+	private final double INF = SparseGraph.INFINITY;
+	private static final double DELTA = 0.0001;
+
+	@Test
+	void testBasicOperations() {
+		SparseGraph<Character> graph = new SparseGraph<>(2);
+
+		assertTrue(graph.addNode('A'));
+		assertTrue(graph.addNode('B'));
+		assertTrue(graph.addNode('C')); // grows beyond the initial capacity
+		assertFalse(graph.addNode('A'));
+		assertEquals(3, graph.getSize());
+
+		assertTrue(graph.addEdge('A', 'B', 1.0));
+		assertTrue(graph.addEdge('B', 'C', 2.0));
+		assertFalse(graph.addEdge('A', 'B', 5.0));
+		assertEquals(2, graph.getEdgeCount());
+		assertTrue(graph.existsEdge('A', 'B'));
+		assertFalse(graph.existsEdge('B', 'A'));
+		assertFalse(graph.existsEdge('A', 'Z'));
+		assertEquals(1.0, graph.getWeight('A', 'B'), DELTA);
+		assertEquals(SparseGraph.WEIGHT_NOT_FOUND, graph.getWeight('C', 'A'), DELTA);
+
+		assertThrows(NullPointerException.class, () -> graph.addNode(null));
+		assertThrows(NullPointerException.class, () -> graph.existsEdge(null, 'A'));
+		assertThrows(ElementNotPresentException.class, () -> graph.addEdge('A', 'Z', 1.0));
+		assertThrows(IllegalArgumentException.class, () -> graph.addEdge('A', 'C', 0.0));
+		assertThrows(ElementNotPresentException.class, () -> graph.dijkstra('Z'));
+
+		assertTrue(graph.isSourceNode('A'));
+		assertTrue(graph.isDrainNode('C'));
+
+		assertTrue(graph.removeEdge('A', 'B'));
+		assertFalse(graph.removeEdge('A', 'B'));
+		assertTrue(graph.isIsolatedNode('A'));
+		assertTrue(graph.addEdge('A', 'B', 3.0));
+		assertEquals(3.0, graph.getWeight('A', 'B'), DELTA);
+
+		assertTrue(graph.removeNode('A'));
+		assertFalse(graph.removeNode('A'));
+		assertFalse(graph.existsNode('A'));
+		assertEquals(1, graph.getEdgeCount());
+		assertTrue(graph.existsEdge('B', 'C'));
+	}
+
+	@Test
+	void testAlgorithmsOnComplexGraph() {
+		SparseGraph<Character> graph = new SparseGraph<>();
+		for (char node = 'A'; node <= 'E'; node++) {
+			graph.addNode(node);
+		}
+		graph.addEdge('A', 'A', 7.0);
+		graph.addEdge('A', 'B', 1.0);
+		graph.addEdge('A', 'E', 20.0);
+		graph.addEdge('B', 'C', 2.0);
+		graph.addEdge('B', 'E', 10.0);
+		graph.addEdge('C', 'C', 14.0);
+		graph.addEdge('C', 'A', 30.0);
+		graph.addEdge('C', 'D', 3.0);
+		graph.addEdge('C', 'E', 6.0);
+		graph.addEdge('D', 'A', 5.0);
+		graph.addEdge('D', 'C', 8.0);
+		graph.addEdge('D', 'E', 4.0);
+
+		assertArrayEquals(new double[] { 0.0, 1.0, 3.0, 6.0, 9.0 }, graph.dijkstra('A').getDijkstraCostsD());
+		assertArrayEquals(new double[] { INF, INF, INF, INF, 0.0 }, graph.dijkstra('E').getDijkstraCostsD());
+		assertEquals(graph.dijkstra('A').toString(), graph.deltaStepping('A', 5.0).toString());
+		assertEquals(5.0, graph.minimumCostPathDijkstra('B', 'D'), DELTA);
+		assertEquals("A-B-C-D-E-", graph.printDepthFirstTraversal('A'));
+		assertEquals("E-", graph.printDepthFirstTraversal('E'));
+		assertEquals(9.0, graph.minimumCostPathFloyd('A', 'E'), DELTA);
+		assertEquals("ABCE", graph.printFloydPath('A', 'E'));
+		assertEquals("E_NO_PATH_FOUND_TO_A", graph.printFloydPath('E', 'A'));
+	}
+
+	@Test
+	void testMatchesMatrixGraph() {
+		int nodes = 40;
+		MatrixGraph<Integer> matrix = new MatrixGraph<>(nodes);
+		SparseGraph<Integer> sparse = new SparseGraph<>(4);
+		Random random = new Random(11);
+		for (int i = 0; i < nodes; i++) {
+			matrix.addNode(i);
+			sparse.addNode(i);
+		}
+		for (int step = 0; step < 2000; step++) {
+			int origin = random.nextInt(nodes);
+			int destination = random.nextInt(nodes);
+			int operation = random.nextInt(10);
+			if (operation < 6) {
+				double weight = 1 + random.nextInt(9);
+				if (matrix.existsNode(origin) && matrix.existsNode(destination)) {
+					assertEquals(matrix.addEdge(origin, destination, weight), sparse.addEdge(origin, destination, weight));
+				}
+			} else if (operation < 9) {
+				if (matrix.existsNode(origin) && matrix.existsNode(destination)) {
+					assertEquals(matrix.removeEdge(origin, destination), sparse.removeEdge(origin, destination));
+				}
+			} else if (random.nextBoolean()) {
+				assertEquals(matrix.removeNode(origin), sparse.removeNode(origin));
+			} else {
+				assertEquals(matrix.addNode(origin), sparse.addNode(origin));
+			}
+			if (step % 250 == 0) {
+				assertSameGraph(matrix, sparse, nodes);
+			}
+		}
+		assertSameGraph(matrix, sparse, nodes);
+	}
+
+	private void assertSameGraph(MatrixGraph<Integer> matrix, SparseGraph<Integer> sparse, int nodes) {
+		assertEquals(matrix.getSize(), sparse.getSize());
+		matrix.floyd();
+		sparse.floyd();
+		for (int origin = 0; origin < nodes; origin++) {
+			assertEquals(matrix.getNodeIndex(origin), sparse.getNodeIndex(origin));
+			if (!matrix.existsNode(origin)) {
+				continue;
+			}
+			int i = matrix.getNodeIndex(origin);
+			for (int destination = 0; destination < nodes; destination++) {
+				assertEquals(matrix.existsEdge(origin, destination), sparse.existsEdge(origin, destination), origin + "->" + destination);
+				if (matrix.existsNode(destination)) {
+					int j = matrix.getNodeIndex(destination);
+					assertEquals(matrix.getWeight(origin, destination), sparse.getWeight(origin, destination), DELTA);
+					assertEquals(matrix.getFloydCostsA()[i][j], sparse.getFloydCostsA()[i][j], DELTA);
+					assertEquals(matrix.getFloydPathsP()[i][j], sparse.getFloydPathsP()[i][j]);
+				}
+			}
+			DijkstraDataClass expected = matrix.dijkstra(origin);
+			DijkstraDataClass actual = sparse.dijkstra(origin);
+			assertArrayEquals(expected.getDijkstraCostsD(), actual.getDijkstraCostsD());
+			assertArrayEquals(expected.getDijkstraPathsP(), actual.getDijkstraPathsP());
+			assertArrayEquals(expected.getDijkstraCostsD(), sparse.deltaStepping(origin, 4.0).getDijkstraCostsD());
+			assertEquals(matrix.printDepthFirstTraversal(origin), sparse.printDepthFirstTraversal(origin));
+			assertEquals(matrix.isSourceNode(origin), sparse.isSourceNode(origin));
+			assertEquals(matrix.isDrainNode(origin), sparse.isDrainNode(origin));
+			assertEquals(matrix.isIsolatedNode(origin), sparse.isIsolatedNode(origin));
+		}
+	}
+
+}